@@ -32,6 +32,21 @@ tasks {
     test {
         useJUnitPlatform()
     }
+    // the invokers are only generated on Java 15+ (hidden classes),
+    // so the tests also run on Java 17 to cover the generator
+    val testJava17 = register<Test>("testJava17") {
+        description = "Runs the tests on Java 17."
+        group = "verification"
+        useJUnitPlatform()
+        testClassesDirs = sourceSets.test.get().output.classesDirs
+        classpath = sourceSets.test.get().runtimeClasspath
+        javaLauncher.set(project.javaToolchains.launcherFor {
+            languageVersion.set(JavaLanguageVersion.of(17))
+        })
+    }
+    check {
+        dependsOn(testJava17)
+    }
     jar {
         manifest {
             attributes("Automatic-Module-Name" to "team.unnamed.inject")
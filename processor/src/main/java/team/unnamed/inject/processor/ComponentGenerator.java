@@ -0,0 +1,546 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject.processor;
+
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.WildcardType;
+import javax.lang.model.util.ElementFilter;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Generates the source code of the component of a type,
+ * following the same resolution rules used by the injector
+ * (ConstructorResolver, FieldResolver, MethodResolver and
+ * KeyResolver) when it uses reflection
+ */
+final class ComponentGenerator {
+
+    private static final String INJECT = "team.unnamed.inject.Inject";
+    private static final String INJECT_ALL = "team.unnamed.inject.InjectAll";
+    private static final String INJECT_IGNORE = "team.unnamed.inject.InjectIgnore";
+    private static final String QUALIFIER = "team.unnamed.inject.Qualifier";
+    private static final String NAMED = "team.unnamed.inject.Named";
+    private static final String ASSIST = "team.unnamed.inject.assisted.Assist";
+
+    private static final String TYPE_REFERENCE = "team.unnamed.inject.key.TypeReference";
+    private static final String KEY = "team.unnamed.inject.key.Key";
+    private static final String INJECTED_KEY = "team.unnamed.inject.key.InjectedKey";
+    private static final String ANNOTATIONS = "team.unnamed.inject.impl.Annotations";
+    private static final String GENERATED_COMPONENT = "team.unnamed.inject.resolve.GeneratedComponent";
+    private static final String INJECTABLE_CONSTRUCTOR = "team.unnamed.inject.resolve.solution.InjectableConstructor";
+    private static final String INJECTABLE_FIELD = "team.unnamed.inject.resolve.solution.InjectableField";
+    private static final String INJECTABLE_METHOD = "team.unnamed.inject.resolve.solution.InjectableMethod";
+
+    private final Elements elements;
+    private final Types types;
+
+    ComponentGenerator(Elements elements, Types types) {
+        this.elements = elements;
+        this.types = types;
+    }
+
+    /**
+     * Generates the component source code for the given type
+     *
+     * @param type The type
+     * @return The component source code
+     * @throws UnsupportedTypeException If a component cannot be
+     *                                  generated for the type
+     */
+    String generate(TypeElement type) throws UnsupportedTypeException {
+
+        if (type.getKind() != ElementKind.CLASS) {
+            throw new UnsupportedTypeException("not a class");
+        }
+        if (type.getModifiers().contains(Modifier.ABSTRACT)) {
+            throw new UnsupportedTypeException("abstract class");
+        }
+        if (type.getNestingKind() == NestingKind.LOCAL || type.getNestingKind() == NestingKind.ANONYMOUS) {
+            throw new UnsupportedTypeException("local or anonymous class");
+        }
+        if (type.getNestingKind() == NestingKind.MEMBER && !type.getModifiers().contains(Modifier.STATIC)) {
+            throw new UnsupportedTypeException("inner (non-static) class");
+        }
+
+        String packageName = packageOf(type);
+        checkAccessible(type, packageName);
+
+        DeclaredType declaredType = (DeclaredType) type.asType();
+        String binaryName = elements.getBinaryName(type).toString();
+        // the binary name is kept ('$' is valid in class names), so
+        // the components of different types can't have the same name
+        String componentName = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1))
+                + InjectProcessor.CLASS_SUFFIX;
+
+        String constructor = constructor(type, declaredType, packageName);
+        List<String> fields = new ArrayList<>();
+        List<String> methods = new ArrayList<>();
+
+        // iterate all superclasses, the same order
+        // used by the reflection-based resolvers
+        for (TypeElement checking = type; checking != null; checking = superclassOf(checking)) {
+            boolean injectAll = hasAnnotation(checking, INJECT_ALL);
+            for (VariableElement field : ElementFilter.fieldsIn(checking.getEnclosedElements())) {
+                if (injectAll ? hasAnnotation(field, INJECT_IGNORE) : !hasAnnotation(field, INJECT)) {
+                    continue;
+                }
+                fields.add(field(declaredType, field, packageName));
+            }
+            for (ExecutableElement method : ElementFilter.methodsIn(checking.getEnclosedElements())) {
+                if (hasAnnotation(method, INJECT)) {
+                    methods.add(method(declaredType, method, packageName));
+                }
+            }
+        }
+
+        String typeName = rawTypeName(type.asType());
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n")
+                .append(" * Injectable members of {@link ").append(typeName).append("},\n")
+                .append(" * generated by the inject-processor\n")
+                .append(" */\n")
+                .append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n")
+                .append("public final class ").append(componentName)
+                .append(" implements ").append(GENERATED_COMPONENT).append(" {\n\n")
+                .append("    private static final ").append(TYPE_REFERENCE).append("<?> TYPE =\n")
+                .append("            ").append(TYPE_REFERENCE).append(".of(").append(typeName).append(".class);\n\n")
+                .append("    @Override\n")
+                .append("    public ").append(INJECTABLE_CONSTRUCTOR).append(" constructor() {\n")
+                .append("        return ").append(constructor).append(";\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public java.util.List<").append(INJECTABLE_FIELD).append("> fields() {\n")
+                .append("        return ").append(list(INJECTABLE_FIELD, fields, "        ")).append(";\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public java.util.List<").append(INJECTABLE_METHOD).append("> methods() {\n")
+                .append("        return ").append(list(INJECTABLE_METHOD, methods, "        ")).append(";\n")
+                .append("    }\n\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    private String constructor(
+            TypeElement type,
+            DeclaredType declaredType,
+            String packageName
+    ) throws UnsupportedTypeException {
+        List<ExecutableElement> constructors = ElementFilter.constructorsIn(type.getEnclosedElements());
+        ExecutableElement constructor = null;
+        for (ExecutableElement candidate : constructors) {
+            if (hasAnnotation(candidate, INJECT)) {
+                constructor = candidate;
+                break;
+            }
+        }
+        if (constructor == null) {
+            for (ExecutableElement candidate : constructors) {
+                if (candidate.getParameters().isEmpty()) {
+                    constructor = candidate;
+                    break;
+                }
+            }
+        }
+        if (constructor == null) {
+            throw new UnsupportedTypeException("no injectable constructor");
+        }
+        checkMember(constructor, packageName);
+
+        ExecutableType executable = (ExecutableType) types.asMemberOf(declaredType, constructor);
+        List<? extends TypeMirror> parameterTypes = executable.getParameterTypes();
+
+        return "new " + INJECTABLE_CONSTRUCTOR + "(\n"
+                + "                " + keys(parameterTypes, constructor.getParameters(), packageName, "                ") + ",\n"
+                + "                " + rawTypeName(declaredType) + ".class,\n"
+                + "                " + classArray(parameterTypes) + ",\n"
+                + "                (target, arguments) -> new " + rawTypeName(declaredType)
+                + "(" + arguments(parameterTypes, "                ") + ")\n"
+                + "        )";
+    }
+
+    private String field(
+            DeclaredType declaredType,
+            VariableElement field,
+            String packageName
+    ) throws UnsupportedTypeException {
+        checkMember(field, packageName);
+        if (field.getModifiers().contains(Modifier.FINAL)) {
+            throw new UnsupportedTypeException("final field '" + field.getSimpleName() + "'");
+        }
+
+        boolean isStatic = field.getModifiers().contains(Modifier.STATIC);
+        TypeMirror fieldType = types.asMemberOf(declaredType, field);
+        String owner = rawTypeName(field.getEnclosingElement().asType());
+        String target = isStatic ? owner : "((" + owner + ") target)";
+
+        return "new " + INJECTABLE_FIELD + "(\n"
+                + "                        TYPE,\n"
+                + "                        " + key(fieldType, field, packageName) + ",\n"
+                + "                        " + elements.getConstantExpression(field.getSimpleName().toString()) + ",\n"
+                + "                        " + isStatic + ",\n"
+                + "                        (target, value) -> " + target + "." + field.getSimpleName()
+                + " = " + cast(fieldType, "value") + "\n"
+                + "                )";
+    }
+
+    private String method(
+            DeclaredType declaredType,
+            ExecutableElement method,
+            String packageName
+    ) throws UnsupportedTypeException {
+        checkMember(method, packageName);
+        if (!method.getTypeParameters().isEmpty()) {
+            throw new UnsupportedTypeException("generic method '" + method.getSimpleName() + "'");
+        }
+
+        boolean isStatic = method.getModifiers().contains(Modifier.STATIC);
+        ExecutableType executable = (ExecutableType) types.asMemberOf(declaredType, method);
+        List<? extends TypeMirror> parameterTypes = executable.getParameterTypes();
+        String owner = rawTypeName(method.getEnclosingElement().asType());
+        String target = (isStatic ? owner : "((" + owner + ") target)") + "." + method.getSimpleName();
+        String invoker = method.getReturnType().getKind() == TypeKind.VOID
+                ? "{\n"
+                + "                            " + target
+                + "(" + arguments(parameterTypes, "                            ") + ");\n"
+                + "                            return null;\n"
+                + "                        }"
+                : target + "(" + arguments(parameterTypes, "                        ") + ")";
+
+        return "new " + INJECTABLE_METHOD + "(\n"
+                + "                        TYPE,\n"
+                + "                        " + keys(parameterTypes, method.getParameters(), packageName, "                        ") + ",\n"
+                + "                        " + elements.getConstantExpression(method.getSimpleName().toString()) + ",\n"
+                + "                        " + classArray(erasedParameterTypes(method)) + ",\n"
+                + "                        " + isStatic + ",\n"
+                + "                        (target, arguments) -> " + invoker + "\n"
+                + "                )";
+    }
+
+    private List<TypeMirror> erasedParameterTypes(ExecutableElement executable) {
+        List<TypeMirror> parameterTypes = new ArrayList<>();
+        for (VariableElement parameter : executable.getParameters()) {
+            parameterTypes.add(types.erasure(parameter.asType()));
+        }
+        return parameterTypes;
+    }
+
+    private String keys(
+            List<? extends TypeMirror> parameterTypes,
+            List<? extends VariableElement> parameters,
+            String packageName,
+            String indent
+    ) throws UnsupportedTypeException {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < parameters.size(); i++) {
+            keys.add(key(parameterTypes.get(i), parameters.get(i), packageName));
+        }
+        return list(INJECTED_KEY + "<?>", keys, indent);
+    }
+
+    /**
+     * Generates the key expression for the given element, follows
+     * the same rules used by the KeyResolver
+     */
+    private String key(TypeMirror type, Element element, String packageName) throws UnsupportedTypeException {
+        boolean optional = false;
+        boolean assisted = false;
+        String qualifierType = "null";
+        String qualifier = "null";
+
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            TypeElement annotationType = (TypeElement) annotation.getAnnotationType().asElement();
+            // the KeyResolver can only see runtime annotations
+            if (!isRuntimeRetained(annotationType)) {
+                continue;
+            }
+            if (!optional) {
+                // Please use "Nullable" instead of "nullable"
+                if (annotationType.getSimpleName().toString().equalsIgnoreCase("Nullable")) {
+                    optional = true;
+                    continue;
+                }
+            }
+            if (!assisted && annotationType.getQualifiedName().contentEquals(ASSIST)) {
+                assisted = true;
+            }
+            if (
+                    qualifierType.equals("null")
+                            && qualifier.equals("null")
+                            && hasAnnotation(annotationType, QUALIFIER)
+            ) {
+                if (containsOnlyDefaultValues(annotation)) {
+                    checkAccessible(annotationType, packageName);
+                    qualifierType = annotationType.getQualifiedName() + ".class";
+                } else if (annotationType.getQualifiedName().contentEquals(NAMED)) {
+                    String name = (String) annotation.getElementValues().values().iterator().next().getValue();
+                    qualifier = ANNOTATIONS + ".createNamed(" + elements.getConstantExpression(name) + ")";
+                } else {
+                    // annotation instances can't be created
+                    throw new UnsupportedTypeException("qualifier @" + annotationType.getSimpleName()
+                            + " with values in '" + element.getSimpleName() + "'");
+                }
+            }
+        }
+
+        String typeName = typeName(type, packageName);
+        String rawTypeName = rawTypeName(type);
+        String typeReference = typeName.equals(rawTypeName)
+                ? TYPE_REFERENCE + ".of(" + rawTypeName + ".class)"
+                : "new " + TYPE_REFERENCE + "<" + typeName + ">() {}";
+
+        return "new " + INJECTED_KEY + "<>(" + KEY + ".of(" + typeReference + ", "
+                + qualifierType + ", " + qualifier + "), " + optional + ", " + assisted + ")";
+    }
+
+    private boolean containsOnlyDefaultValues(AnnotationMirror annotation) {
+        Map<? extends ExecutableElement, ? extends AnnotationValue> values = annotation.getElementValues();
+        for (ExecutableElement method : ElementFilter.methodsIn(
+                annotation.getAnnotationType().asElement().getEnclosedElements())) {
+            AnnotationValue defaultValue = method.getDefaultValue();
+            // no default value given, arrays are never
+            // equal to the default value when using reflection
+            if (defaultValue == null || defaultValue.getValue() instanceof List) {
+                return false;
+            }
+            AnnotationValue value = values.get(method);
+            if (value != null && !value.toString().equals(defaultValue.toString())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isRuntimeRetained(TypeElement annotationType) {
+        for (AnnotationMirror annotation : annotationType.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) annotation.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals("java.lang.annotation.Retention")) {
+                for (AnnotationValue value : annotation.getElementValues().values()) {
+                    return value.getValue().toString().equals("RUNTIME");
+                }
+            }
+        }
+        // CLASS retention by default
+        return false;
+    }
+
+    private String arguments(List<? extends TypeMirror> parameterTypes, String indent) {
+        if (parameterTypes.isEmpty()) {
+            return "";
+        }
+        StringBuilder arguments = new StringBuilder();
+        for (int i = 0; i < parameterTypes.size(); i++) {
+            arguments.append(i == 0 ? "\n" : ",\n")
+                    .append(indent).append("        ")
+                    .append(cast(parameterTypes.get(i), "arguments[" + i + "]"));
+        }
+        return arguments.append('\n').append(indent).toString();
+    }
+
+    private String cast(TypeMirror type, String expression) {
+        if (type.getKind().isPrimitive()) {
+            // unboxed by the compiler
+            return "(" + types.boxedClass((PrimitiveType) type).getQualifiedName()
+                    + ") " + expression;
+        }
+        return "(" + rawTypeName(type) + ") " + expression;
+    }
+
+    private String classArray(List<? extends TypeMirror> types) {
+        StringBuilder array = new StringBuilder("new java.lang.Class<?>[]{");
+        for (int i = 0; i < types.size(); i++) {
+            if (i != 0) {
+                array.append(", ");
+            }
+            array.append(rawTypeName(types.get(i))).append(".class");
+        }
+        return array.append('}').toString();
+    }
+
+    private String list(String elementType, List<String> elements, String indent) {
+        StringBuilder list = new StringBuilder("java.util.Arrays.<")
+                .append(elementType)
+                .append(">asList(");
+        for (int i = 0; i < elements.size(); i++) {
+            list.append(i == 0 ? "\n" : ",\n")
+                    .append(indent).append("        ")
+                    .append(elements.get(i));
+        }
+        if (!elements.isEmpty()) {
+            list.append('\n').append(indent);
+        }
+        return list.append(')').toString();
+    }
+
+    /**
+     * Renders the given type as source code, checking
+     * that it can be referenced from the given package
+     */
+    private String typeName(TypeMirror type, String packageName) throws UnsupportedTypeException {
+        if (type.getKind().isPrimitive()) {
+            return type.getKind().name().toLowerCase(Locale.ROOT);
+        }
+        switch (type.getKind()) {
+            case ARRAY:
+                return typeName(((ArrayType) type).getComponentType(), packageName) + "[]";
+            case DECLARED: {
+                DeclaredType declared = (DeclaredType) type;
+                TypeElement element = (TypeElement) declared.asElement();
+                checkAccessible(element, packageName);
+                TypeMirror enclosing = declared.getEnclosingType();
+                if (enclosing.getKind() == TypeKind.DECLARED
+                        && !((DeclaredType) enclosing).getTypeArguments().isEmpty()) {
+                    throw new UnsupportedTypeException("type " + type + " has a generic enclosing type");
+                }
+                StringBuilder name = new StringBuilder(element.getQualifiedName());
+                List<? extends TypeMirror> arguments = declared.getTypeArguments();
+                if (!arguments.isEmpty()) {
+                    name.append('<');
+                    for (int i = 0; i < arguments.size(); i++) {
+                        if (i != 0) {
+                            name.append(", ");
+                        }
+                        name.append(typeName(arguments.get(i), packageName));
+                    }
+                    name.append('>');
+                }
+                return name.toString();
+            }
+            case WILDCARD: {
+                WildcardType wildcard = (WildcardType) type;
+                if (wildcard.getExtendsBound() != null) {
+                    return "? extends " + typeName(wildcard.getExtendsBound(), packageName);
+                } else if (wildcard.getSuperBound() != null) {
+                    return "? super " + typeName(wildcard.getSuperBound(), packageName);
+                }
+                return "?";
+            }
+            case TYPEVAR:
+                // requires the context of the requested type
+                throw new UnsupportedTypeException("type variable " + type);
+            default:
+                throw new UnsupportedTypeException("type " + type);
+        }
+    }
+
+    /**
+     * Renders the erasure of the given type as source code,
+     * the type must be already validated
+     */
+    private String rawTypeName(TypeMirror type) {
+        TypeMirror erasure = types.erasure(type);
+        if (erasure.getKind().isPrimitive()) {
+            return erasure.getKind().name().toLowerCase(Locale.ROOT);
+        } else if (erasure.getKind() == TypeKind.ARRAY) {
+            return rawTypeName(((ArrayType) erasure).getComponentType()) + "[]";
+        } else {
+            return ((TypeElement) types.asElement(erasure)).getQualifiedName().toString();
+        }
+    }
+
+    private void checkMember(Element member, String packageName) throws UnsupportedTypeException {
+        TypeElement declaring = (TypeElement) member.getEnclosingElement();
+        if (member.getModifiers().contains(Modifier.PRIVATE)) {
+            throw new UnsupportedTypeException("private member '" + member.getSimpleName()
+                    + "' in " + declaring.getQualifiedName());
+        }
+        if (!member.getModifiers().contains(Modifier.PUBLIC) && !packageOf(declaring).equals(packageName)) {
+            throw new UnsupportedTypeException("member '" + member.getSimpleName()
+                    + "' in " + declaring.getQualifiedName() + " isn't accessible");
+        }
+        checkAccessible(declaring, packageName);
+    }
+
+    private void checkAccessible(TypeElement type, String packageName) throws UnsupportedTypeException {
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            boolean accessible = !element.getModifiers().contains(Modifier.PRIVATE)
+                    && (element.getModifiers().contains(Modifier.PUBLIC)
+                    || packageOf(element).equals(packageName));
+            if (!accessible) {
+                throw new UnsupportedTypeException("type " + type.getQualifiedName() + " isn't accessible");
+            }
+        }
+    }
+
+    private TypeElement superclassOf(TypeElement type) {
+        TypeMirror superclass = type.getSuperclass();
+        if (superclass.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        TypeElement element = (TypeElement) ((DeclaredType) superclass).asElement();
+        return element.getQualifiedName().contentEquals("java.lang.Object") ? null : element;
+    }
+
+    private String packageOf(Element element) {
+        PackageElement packageElement = elements.getPackageOf(element);
+        return packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+    }
+
+    private static boolean hasAnnotation(Element element, String annotationName) {
+        for (AnnotationMirror annotation : element.getAnnotationMirrors()) {
+            TypeElement type = (TypeElement) annotation.getAnnotationType().asElement();
+            if (type.getQualifiedName().contentEquals(annotationName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Thrown when a component cannot be generated for a type,
+     * its members will be resolved using reflection
+     */
+    static final class UnsupportedTypeException extends Exception {
+
+        private static final long serialVersionUID = 1L;
+
+        UnsupportedTypeException(String message) {
+            super(message);
+        }
+
+    }
+
+}
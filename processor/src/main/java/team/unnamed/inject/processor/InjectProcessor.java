@@ -0,0 +1,168 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor that generates a component (constructor
+ * invoker and members injector) for every class with an injectable
+ * constructor, injectable members or annotated with
+ * {@code InjectAll}, so the injector doesn't have to resolve and
+ * invoke the members of these classes using reflection.
+ *
+ * <p>Components can only be generated for classes whose injected
+ * members are accessible from the same package (non-private, and
+ * non-final for fields), other classes are resolved using
+ * reflection, as usual</p>
+ *
+ * <p>The binary names of the classes with a generated component
+ * are listed in the {@link #INDEX_RESOURCE} resource, used by the
+ * injector to discover the components</p>
+ */
+@SupportedAnnotationTypes({
+        "team.unnamed.inject.Inject",
+        "team.unnamed.inject.InjectAll"
+})
+public final class InjectProcessor extends AbstractProcessor {
+
+    // must be the same as GeneratedComponent.INDEX_RESOURCE
+    static final String INDEX_RESOURCE = "META-INF/team.unnamed.inject/components";
+
+    // must be the same as GeneratedComponent.CLASS_SUFFIX
+    static final String CLASS_SUFFIX = "_InjectComponent";
+
+    private final Set<String> processedTypes = new HashSet<>();
+    private final Set<String> indexedTypes = new TreeSet<>();
+
+    private Filer filer;
+    private Messager messager;
+    private ComponentGenerator generator;
+
+    @Override
+    public synchronized void init(ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.filer = processingEnv.getFiler();
+        this.messager = processingEnv.getMessager();
+        this.generator = new ComponentGenerator(
+                processingEnv.getElementUtils(),
+                processingEnv.getTypeUtils()
+        );
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+
+        if (roundEnv.processingOver()) {
+            writeIndex();
+            return false;
+        }
+
+        Set<TypeElement> types = new LinkedHashSet<>();
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                Element type = element.getKind().isClass()
+                        ? element
+                        : element.getEnclosingElement();
+                if (type instanceof TypeElement) {
+                    types.add((TypeElement) type);
+                }
+            }
+        }
+
+        for (TypeElement type : types) {
+            String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+            if (!processedTypes.add(binaryName)) {
+                continue;
+            }
+            try {
+                String source = generator.generate(type);
+                String componentName = binaryName + CLASS_SUFFIX;
+                JavaFileObject file = filer.createSourceFile(componentName, type);
+                try (Writer writer = file.openWriter()) {
+                    writer.write(source);
+                }
+                indexedTypes.add(binaryName);
+            } catch (ComponentGenerator.UnsupportedTypeException e) {
+                messager.printMessage(
+                        Diagnostic.Kind.NOTE,
+                        "Component not generated, " + type + " will be resolved using reflection: "
+                                + e.getMessage(),
+                        type
+                );
+            } catch (IOException e) {
+                messager.printMessage(
+                        Diagnostic.Kind.ERROR,
+                        "Cannot write component for " + type + ": " + e.getMessage(),
+                        type
+                );
+            }
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        if (indexedTypes.isEmpty()) {
+            return;
+        }
+        try {
+            FileObject file = filer.createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (Writer writer = file.openWriter()) {
+                for (String type : indexedTypes) {
+                    writer.write(type);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            messager.printMessage(
+                    Diagnostic.Kind.ERROR,
+                    "Cannot write components index: " + e.getMessage()
+            );
+        }
+    }
+
+}
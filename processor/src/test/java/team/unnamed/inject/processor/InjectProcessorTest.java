@@ -0,0 +1,253 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject.processor;
+
+import team.unnamed.inject.Injector;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Compiles sample sources using the {@link InjectProcessor}
+ * and uses the generated components
+ */
+public class InjectProcessorTest {
+
+    private static final String BAR_SOURCE = "package sample;\n"
+            + "public class Bar {\n"
+            + "}\n";
+
+    private static final String FOO_SOURCE = "package sample;\n"
+            + "import team.unnamed.inject.Inject;\n"
+            + "import team.unnamed.inject.Named;\n"
+            + "public class Foo {\n"
+            + "    public final String name;\n"
+            + "    @Inject public Bar bar;\n"
+            + "    public Bar baz;\n"
+            + "    @Inject\n"
+            + "    Foo(@Named(\"name\") String name) {\n"
+            + "        this.name = name;\n"
+            + "    }\n"
+            + "    @Inject\n"
+            + "    void setBaz(Bar baz) {\n"
+            + "        this.baz = baz;\n"
+            + "    }\n"
+            + "}\n";
+
+    // a nested type and a top-level type whose names only
+    // differ in the separator, their components can't collide
+    private static final String OUTER_SOURCE = "package sample;\n"
+            + "import team.unnamed.inject.Inject;\n"
+            + "public class Outer {\n"
+            + "    public static class Inner {\n"
+            + "        @Inject public Bar bar;\n"
+            + "    }\n"
+            + "}\n";
+
+    private static final String OUTER_INNER_SOURCE = "package sample;\n"
+            + "import team.unnamed.inject.Inject;\n"
+            + "public class Outer_Inner {\n"
+            + "    @Inject public Foo foo;\n"
+            + "}\n";
+
+    @Test
+    public void test() throws Exception {
+        Path directory = Files.createTempDirectory("inject-processor");
+        Path sources = directory.resolve("src");
+        Path generated = directory.resolve("generated");
+        Path classes = directory.resolve("classes");
+        Files.createDirectories(sources.resolve("sample"));
+        Files.createDirectories(generated);
+        Files.createDirectories(classes);
+        Path bar = Files.write(sources.resolve("sample/Bar.java"), BAR_SOURCE.getBytes(StandardCharsets.UTF_8));
+        Path foo = Files.write(sources.resolve("sample/Foo.java"), FOO_SOURCE.getBytes(StandardCharsets.UTF_8));
+        Path outer = Files.write(sources.resolve("sample/Outer.java"), OUTER_SOURCE.getBytes(StandardCharsets.UTF_8));
+        Path outerInner = Files.write(
+                sources.resolve("sample/Outer_Inner.java"),
+                OUTER_INNER_SOURCE.getBytes(StandardCharsets.UTF_8)
+        );
+
+        compile(classes, generated, bar, foo, outer, outerInner);
+
+        // the generated source and the index
+        String component = new String(
+                Files.readAllBytes(generated.resolve("sample/Foo_InjectComponent.java")),
+                StandardCharsets.UTF_8
+        );
+        Assertions.assertTrue(component.contains("implements team.unnamed.inject.resolve.GeneratedComponent"), component);
+        Assertions.assertTrue(component.contains("new sample.Foo("), component);
+        Assertions.assertTrue(component.contains("createNamed(\"name\")"), component);
+        Assertions.assertTrue(component.contains("\"bar\""), component);
+        Assertions.assertTrue(component.contains("\"setBaz\""), component);
+        List<String> index = Files.readAllLines(
+                classes.resolve(InjectProcessor.INDEX_RESOURCE),
+                StandardCharsets.UTF_8
+        );
+        Assertions.assertTrue(index.contains("sample.Foo"), index.toString());
+        Assertions.assertTrue(index.contains("sample.Outer$Inner"), index.toString());
+        Assertions.assertTrue(index.contains("sample.Outer_Inner"), index.toString());
+        Assertions.assertTrue(Files.exists(generated.resolve("sample/Outer$Inner_InjectComponent.java")));
+        Assertions.assertTrue(Files.exists(generated.resolve("sample/Outer_Inner_InjectComponent.java")));
+
+        Injector injector = Injector.create(binder ->
+                binder.bind(String.class).named("name").toInstance("hello"));
+
+        // the generated component is used
+        RecordingClassLoader classLoader = new RecordingClassLoader(classes.toUri().toURL());
+        Class<?> fooClass = classLoader.loadClass("sample.Foo");
+        assertInjected(fooClass, injector.getInstance(fooClass));
+        Assertions.assertTrue(classLoader.defined.contains("sample.Foo_InjectComponent"));
+
+        Class<?> innerClass = classLoader.loadClass("sample.Outer$Inner");
+        Class<?> outerInnerClass = classLoader.loadClass("sample.Outer_Inner");
+        Assertions.assertNotNull(innerClass.getField("bar").get(injector.getInstance(innerClass)));
+        Object outerInnerFoo = outerInnerClass.getField("foo").get(injector.getInstance(outerInnerClass));
+        assertInjected(fooClass, outerInnerFoo);
+        Assertions.assertTrue(classLoader.defined.contains("sample.Outer$Inner_InjectComponent"));
+        Assertions.assertTrue(classLoader.defined.contains("sample.Outer_Inner_InjectComponent"));
+
+        // a class defined again by a child-first class loader can't
+        // use the component of the class with the same name in the parent
+        ChildFirstClassLoader child = new ChildFirstClassLoader(classes, classLoader);
+        Class<?> childFooClass = child.loadClass("sample.Foo");
+        Assertions.assertNotSame(fooClass, childFooClass);
+        assertInjected(childFooClass, injector.getInstance(childFooClass));
+    }
+
+    private static void assertInjected(Class<?> type, Object instance) throws Exception {
+        Assertions.assertTrue(type.isInstance(instance));
+        Assertions.assertEquals("hello", type.getField("name").get(instance));
+        Assertions.assertNotNull(type.getField("bar").get(instance));
+        Assertions.assertNotNull(type.getField("baz").get(instance));
+    }
+
+    private static void compile(Path classes, Path generated, Path... sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        Assertions.assertNotNull(compiler, "A JDK is required to run this test");
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            List<File> files = new ArrayList<>();
+            for (Path source : sources) {
+                files.add(source.toFile());
+            }
+            List<String> options = Arrays.asList(
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-d", classes.toString(),
+                    "-s", generated.toString(),
+                    "-implicit:class"
+            );
+            JavaCompiler.CompilationTask task = compiler.getTask(
+                    null,
+                    fileManager,
+                    null,
+                    options,
+                    null,
+                    fileManager.getJavaFileObjectsFromFiles(files)
+            );
+            task.setProcessors(Collections.singletonList(new InjectProcessor()));
+            Assertions.assertTrue(task.call(), "Compilation failed");
+        }
+    }
+
+    /**
+     * Loads the compiled sample classes and records
+     * the classes that it defines
+     */
+    private static class RecordingClassLoader extends URLClassLoader {
+
+        private final Set<String> defined = ConcurrentHashMap.newKeySet();
+
+        private RecordingClassLoader(URL classes) {
+            super(new URL[]{classes}, InjectProcessorTest.class.getClassLoader());
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            Class<?> type = super.findClass(name);
+            defined.add(name);
+            return type;
+        }
+
+    }
+
+    /**
+     * Defines the sample.Foo class again, the other
+     * classes (including its component) are loaded
+     * by the parent
+     */
+    private static class ChildFirstClassLoader extends ClassLoader {
+
+        private final Path classes;
+
+        private ChildFirstClassLoader(Path classes, ClassLoader parent) {
+            super(parent);
+            this.classes = classes;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals("sample.Foo")) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> type = findLoadedClass(name);
+                if (type == null) {
+                    byte[] bytes;
+                    try (InputStream input = Files.newInputStream(classes.resolve("sample/Foo.class"))) {
+                        ByteArrayOutputStream output = new ByteArrayOutputStream();
+                        byte[] buffer = new byte[4096];
+                        int read;
+                        while ((read = input.read(buffer)) != -1) {
+                            output.write(buffer, 0, read);
+                        }
+                        bytes = output.toByteArray();
+                    } catch (IOException e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                    type = defineClass(name, bytes, 0, bytes.length);
+                }
+                return type;
+            }
+        }
+
+    }
+
+}
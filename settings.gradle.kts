@@ -2,4 +2,7 @@ plugins {
     id("org.gradle.toolchains.foojay-resolver-convention") version "0.7.0"
 }
 
-rootProject.name = "inject"
\ No newline at end of file
+rootProject.name = "inject"
+
+include("inject-processor")
+project(":inject-processor").projectDir = file("processor")
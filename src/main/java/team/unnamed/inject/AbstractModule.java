@@ -74,6 +74,10 @@ public abstract class AbstractModule implements Module {
         binder().install(modules);
     }
 
+    protected final void requireExplicitBindings() {
+        binder().requireExplicitBindings();
+    }
+
     protected void configure() {
         // the method isn't abstract because
         // we don't want the user to implement
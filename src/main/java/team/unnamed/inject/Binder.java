@@ -78,6 +78,17 @@ public interface Binder extends ErrorAttachable {
 
     void install(Iterable<? extends Module> modules);
 
+    /**
+     * Makes the injector require explicit bindings for all
+     * the requested keys. The types bound explicitly (and the
+     * targets of their links) are scanned once, when the injector
+     * is created, so their {@link Targetted}, {@link ProvidedBy}
+     * and scope annotations are used, but the keys requested
+     * later aren't scanned nor constructed implicitly, requesting
+     * an unbound key fails immediately.
+     */
+    void requireExplicitBindings();
+
     /**
      * Represents a binding builder that can be
      * scoped. This interface marks the end of
@@ -23,25 +23,55 @@
  */
 package team.unnamed.inject;
 
+import team.unnamed.inject.impl.Annotations;
 import team.unnamed.inject.impl.BinderImpl;
 import team.unnamed.inject.impl.InjectorImpl;
+import team.unnamed.inject.key.Key;
 import team.unnamed.inject.key.TypeReference;
+import team.unnamed.inject.util.Validate;
 
 import java.util.Arrays;
 
 public interface Injector {
 
     static Injector create(Module... modules) {
-        return create(Arrays.asList(modules));
+        return create(Stage.DEVELOPMENT, modules);
     }
 
     static Injector create(Iterable<? extends Module> modules) {
+        return create(Stage.DEVELOPMENT, modules);
+    }
+
+    static Injector create(Stage stage, Module... modules) {
+        return create(stage, Arrays.asList(modules));
+    }
+
+    /**
+     * Creates an injector using the given modules
+     *
+     * @param stage   The injector stage, if it's {@link Stage#PRODUCTION},
+     *                all the bindings are resolved and validated now
+     * @param modules The modules to install
+     * @return The created injector
+     * @throws team.unnamed.inject.error.BindingException If the modules
+     *                                                    contain errors
+     * @throws team.unnamed.inject.error.InjectionException If the stage is
+     *                                                      {@link Stage#PRODUCTION}
+     *                                                      and the bindings
+     *                                                      cannot be resolved
+     */
+    static Injector create(Stage stage, Iterable<? extends Module> modules) {
+        Validate.notNull(stage, "stage");
         BinderImpl binder = new BinderImpl();
         binder.install(modules);
         if (binder.hasErrors()) {
             binder.reportAttachedErrors();
         }
-        return new InjectorImpl(binder);
+        InjectorImpl injector = new InjectorImpl(binder);
+        if (stage == Stage.PRODUCTION) {
+            injector.resolveEagerly();
+        }
+        return injector;
     }
 
     /**
@@ -116,4 +146,46 @@ public interface Injector {
      */
     <T> T getInstance(TypeReference<T> type);
 
+    /**
+     * Instantiates and injects the type of the specified
+     * key, respecting its qualifier
+     *
+     * @param key The instance key
+     * @param <T> The type parameter
+     * @return The instance, or null if the class isn't injectable
+     */
+    <T> T getInstance(Key<T> key);
+
+    /**
+     * Converts the specified class to a {@link TypeReference}
+     * and calls the overloaded method {@link Injector#getInstance(TypeReference, String)}
+     *
+     * @param type The instance class
+     * @param name The name of the binding
+     * @param <T>  The class parameter
+     * @return The instance, or null if the specified class
+     * isn't injectable
+     */
+    default <T> T getInstance(Class<T> type, String name) {
+        return getInstance(TypeReference.of(type), name);
+    }
+
+    /**
+     * Instantiates and injects the specified type qualified
+     * with {@link Named} using the given {@code name}, equivalent
+     * to request the key with a {@link Named} instance, without
+     * creating the annotation when the binding exists.
+     * The default implementation creates the annotation and
+     * calls {@link Injector#getInstance(Key)}
+     *
+     * @param type The instance generic type
+     * @param name The name of the binding
+     * @param <T>  The type parameter
+     * @return The instance, or null if the class isn't injectable
+     */
+    default <T> T getInstance(TypeReference<T> type, String name) {
+        Validate.notNull(name, "name");
+        return getInstance(Key.of(type, null, Annotations.createNamed(name)));
+    }
+
 }
@@ -0,0 +1,50 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+/**
+ * Determines how much work is done by the
+ * {@link Injector} when it's created
+ */
+public enum Stage {
+
+    /**
+     * The bindings are resolved lazily, when the keys
+     * are requested for the first time. Errors like
+     * missing bindings are reported when requesting
+     * the keys. This is the default stage
+     */
+    DEVELOPMENT,
+
+    /**
+     * All the explicit bindings and their transitive
+     * dependencies are resolved when the injector is
+     * created (nothing is instantiated), so the first
+     * requests are as fast as the next ones. All the
+     * resolution errors are reported at once, when
+     * creating the injector
+     */
+    PRODUCTION
+
+}
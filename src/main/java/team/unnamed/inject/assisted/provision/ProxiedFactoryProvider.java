@@ -34,7 +34,6 @@ import team.unnamed.inject.resolve.solution.InjectableConstructor;
 import team.unnamed.inject.util.ElementFormatter;
 
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.util.HashMap;
@@ -109,18 +108,12 @@ public class ProxiedFactoryProvider<T>
         }
 
 
+        Object instance;
         try {
-            Object instance = constructor.getMember().newInstance(givenArgs);
-            injector.injectMembers(
-                    (TypeReference) key.getType(),
-                    instance
-            );
-            return instance;
-        } catch (
-                InstantiationException
-                        | InvocationTargetException
-                        | IllegalAccessException e
-        ) {
+            instance = constructor.newInstance(givenArgs);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
             injector.stackForThisThread().attach(
                     "Errors while invoking assisted constructor "
                             + ElementFormatter.formatConstructor(constructor.getMember(), keys),
@@ -128,6 +121,11 @@ public class ProxiedFactoryProvider<T>
             );
             return null;
         }
+        injector.injectMembers(
+                (TypeReference) key.getType(),
+                instance
+        );
+        return instance;
     }
 
     @Override
@@ -153,7 +151,7 @@ public class ProxiedFactoryProvider<T>
                     }
                 }
         );
-        injected = true;
+        setInjected(true);
     }
 
     @Override
@@ -77,6 +77,32 @@ public interface ErrorAttachable {
      */
     void applySnapshot(List<String> errorMessages);
 
+    /**
+     * Marks the current position of the attached errors,
+     * unlike {@link #getErrorMessages()}, the messages
+     * aren't copied. Use {@link #rollback} to remove
+     * the errors attached after the mark
+     *
+     * @return The checkpoint
+     */
+    default int checkpoint() {
+        return errorCount();
+    }
+
+    /**
+     * Removes all the errors attached after the
+     * specified {@code checkpoint}
+     *
+     * @param checkpoint The checkpoint, returned
+     *                   by {@link #checkpoint()}
+     */
+    default void rollback(int checkpoint) {
+        List<String> errorMessages = getErrorMessages();
+        if (checkpoint < errorMessages.size()) {
+            applySnapshot(errorMessages.subList(0, checkpoint));
+        }
+    }
+
     /**
      * Formats the error messages in one message
      *
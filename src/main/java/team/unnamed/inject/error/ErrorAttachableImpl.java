@@ -27,7 +27,6 @@ import team.unnamed.inject.util.Validate;
 
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.LinkedList;
 import java.util.List;
 
 /**
@@ -42,12 +41,9 @@ import java.util.List;
  */
 public class ErrorAttachableImpl implements ErrorAttachable {
 
-    // We don't need access by index to the
-    // collection of error messages, so we
-    // can use a LinkedList instead of an
-    // ArrayList compound by a resizeable array
-    private final List<String> errorMessages =
-            new LinkedList<>();
+    // Lazily created, most of the error attachables
+    // (i.e. provision stacks) never have errors
+    private List<String> errorMessages;
 
     /**
      * Adds all the {@code messages} to the list of error messages
@@ -55,7 +51,7 @@ public class ErrorAttachableImpl implements ErrorAttachable {
     @Override
     public void attach(String... messages) {
         Validate.notNull(messages, "errorMessages");
-        Collections.addAll(errorMessages, messages);
+        Collections.addAll(messages(), messages);
     }
 
     @Override
@@ -65,7 +61,7 @@ public class ErrorAttachableImpl implements ErrorAttachable {
         if (header != null) {
             stackTrace = header + "\n" + stackTrace;
         }
-        errorMessages.add(stackTrace);
+        messages().add(stackTrace);
     }
 
     /**
@@ -74,7 +70,9 @@ public class ErrorAttachableImpl implements ErrorAttachable {
      */
     @Override
     public void attachAll(ErrorAttachable attachable) {
-        errorMessages.addAll(attachable.getErrorMessages());
+        if (attachable.hasErrors()) {
+            messages().addAll(attachable.getErrorMessages());
+        }
     }
 
     /**
@@ -83,7 +81,7 @@ public class ErrorAttachableImpl implements ErrorAttachable {
      */
     @Override
     public boolean hasErrors() {
-        return !errorMessages.isEmpty();
+        return errorMessages != null && !errorMessages.isEmpty();
     }
 
     /**
@@ -94,26 +92,60 @@ public class ErrorAttachableImpl implements ErrorAttachable {
      */
     @Override
     public List<String> getErrorMessages() {
+        if (!hasErrors()) {
+            return Collections.emptyList();
+        }
         return new ArrayList<>(errorMessages);
     }
 
     @Override
     public void applySnapshot(List<String> errorMessages) {
-        this.errorMessages.clear();
+        if (this.errorMessages == null) {
+            if (errorMessages.isEmpty()) {
+                return;
+            }
+            this.errorMessages = new ArrayList<>(errorMessages.size());
+        } else {
+            this.errorMessages.clear();
+        }
         this.errorMessages.addAll(errorMessages);
     }
 
+    @Override
+    public int checkpoint() {
+        return errorCount();
+    }
+
+    /**
+     * Truncates the error list to the specified
+     * checkpoint, no messages are copied
+     */
+    @Override
+    public void rollback(int checkpoint) {
+        if (errorMessages != null && checkpoint < errorMessages.size()) {
+            errorMessages.subList(checkpoint, errorMessages.size()).clear();
+        }
+    }
+
     /**
      * Formats the error messages in this error-attachable
      */
     @Override
     public String formatMessages() {
-        return Errors.formatErrorMessages(errorMessages);
+        return Errors.formatErrorMessages(
+                errorMessages == null ? Collections.emptyList() : errorMessages);
     }
 
     @Override
     public int errorCount() {
-        return errorMessages.size();
+        return errorMessages == null ? 0 : errorMessages.size();
+    }
+
+    private List<String> messages() {
+        if (errorMessages == null) {
+            errorMessages = new ArrayList<>();
+        }
+        return errorMessages;
     }
 
     /**
@@ -40,9 +40,19 @@ import java.lang.reflect.Modifier;
  * Scans a type looking for scope annotations
  * and binding annotations like {@link Singleton},
  * {@link Targetted}, {@link ProvidedBy}.
+ *
+ * <p>The binding annotations of every class are read
+ * once and cached, see {@link TypeAnnotations}</p>
  */
 final class AnnotationScanner {
 
+    private static final ClassValue<TypeAnnotations> TYPE_ANNOTATIONS = new ClassValue<TypeAnnotations>() {
+        @Override
+        protected TypeAnnotations computeValue(Class<?> type) {
+            return new TypeAnnotations(type);
+        }
+    };
+
     private AnnotationScanner() {
     }
 
@@ -59,18 +69,15 @@ final class AnnotationScanner {
             return;
         }
 
-        Class<? super T> rawType = keyType.getRawType();
-
-        Targetted target = rawType.getAnnotation(Targetted.class);
-        ProvidedBy providedBy = rawType.getAnnotation(ProvidedBy.class);
+        TypeAnnotations annotations = TYPE_ANNOTATIONS.get(keyType.getRawType());
 
-        if (target != null) {
-            Key<? extends T> linkedKey = Key.of(TypeReference.of(target.value()));
-            binder.$unsafeBind(key, Providers.link(key, linkedKey));
-        } else if (providedBy != null) {
+        if (annotations.target != null) {
+            Key<? extends T> linkedKey = Key.of(TypeReference.of(annotations.target));
+            binder.bindIfUnchanged(key, null, Providers.link(key, linkedKey));
+        } else if (annotations.providedBy != null) {
             TypeReference<? extends Provider<? extends T>> linkedProvider =
-                    TypeReference.of(providedBy.value());
-            binder.$unsafeBind(key, Providers.providerTypeProvider(linkedProvider));
+                    TypeReference.of(annotations.providedBy);
+            binder.bindIfUnchanged(key, null, Providers.providerTypeProvider(linkedProvider));
         }
     }
 
@@ -80,13 +87,13 @@ final class AnnotationScanner {
     static <T> void scope(TypeReference<T> keyType, BinderImpl binder) {
 
         Key<T> key = Key.of(keyType);
-        StdProvider<? extends T> provider = binder.getProvider(key);
+        StdProvider<? extends T> bound = binder.getProvider(key);
+        StdProvider<? extends T> provider = bound;
 
         Class<? super T> rawType = keyType.getRawType();
 
         // so it can be linked to itself
-        if (provider == null && !rawType.isInterface()
-                && !Modifier.isAbstract(rawType.getModifiers())) {
+        if (provider == null && TYPE_ANNOTATIONS.get(rawType).instantiable) {
             // link to self
             provider = Providers.normalize(Providers.link(key, key));
         }
@@ -97,10 +104,35 @@ final class AnnotationScanner {
             return;
         }
 
+        // cached by the scanner
         Scope scope = Scopes.getScanner().scan(rawType);
         if (scope != Scopes.NONE) {
-            binder.$unsafeBind(key, provider.withScope(key, scope));
+            // if another thread scoped the key first, its
+            // provider is used, so there's only one instance
+            // of the scoped provider (i.e. only one singleton)
+            binder.bindIfUnchanged(key, bound, provider.withScope(key, scope));
         }
     }
 
+    /**
+     * Immutable summary of the binding annotations
+     * and modifiers of a class, the scope annotations
+     * are cached by the {@link team.unnamed.inject.scope.ScopeScanner}
+     */
+    private static final class TypeAnnotations {
+
+        private final Class<?> target;
+        private final Class<?> providedBy;
+        private final boolean instantiable;
+
+        private TypeAnnotations(Class<?> type) {
+            Targetted target = type.getAnnotation(Targetted.class);
+            ProvidedBy providedBy = type.getAnnotation(ProvidedBy.class);
+            this.target = target == null ? null : target.value();
+            this.providedBy = providedBy == null ? null : providedBy.value();
+            this.instantiable = !type.isInterface() && !Modifier.isAbstract(type.getModifiers());
+        }
+
+    }
+
 }
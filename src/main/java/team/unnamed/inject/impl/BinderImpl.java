@@ -25,6 +25,7 @@ package team.unnamed.inject.impl;
 
 import team.unnamed.inject.Binder;
 import team.unnamed.inject.Module;
+import team.unnamed.inject.Named;
 import team.unnamed.inject.Provider;
 import team.unnamed.inject.error.BindingException;
 import team.unnamed.inject.error.ErrorAttachableImpl;
@@ -34,17 +35,49 @@ import team.unnamed.inject.multibinding.MultiBindingBuilderImpl;
 import team.unnamed.inject.provision.Providers;
 import team.unnamed.inject.provision.StdProvider;
 import team.unnamed.inject.provision.std.MethodAsProvider;
+import team.unnamed.inject.provision.std.ScopedProvider;
 import team.unnamed.inject.provision.std.generic.impl.TypeReferenceGenericProvider;
+import team.unnamed.inject.scope.SingletonTable;
 import team.unnamed.inject.util.Validate;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class BinderImpl extends ErrorAttachableImpl implements Binder {
 
-    private final Map<Key<?>, Provider<?>> bindings =
+    // the bindings added while configuring the injector,
+    // null after the binder is frozen
+    private Map<Key<?>, Provider<?>> bindings =
             new HashMap<>();
 
+    // read-optimized table of the configured bindings and
+    // the bindings added later (just-in-time bindings),
+    // both are null until the binder is frozen
+    private volatile BindingTable table;
+    private Map<Key<?>, Provider<?>> overlay;
+
+    // the keys qualified with @Named, indexed by type and
+    // name, so they can be found without creating a key
+    // and an annotation instance for every lookup
+    private final Map<Type, Map<String, Key<?>>> namedKeys =
+            new ConcurrentHashMap<>();
+
+    // the slots of the singleton instances, allocated
+    // when the binder is frozen or when a singleton is
+    // bound after that
+    private final SingletonTable singletons = new SingletonTable();
+
+    private boolean explicitBindingsRequired;
+
+    // incremented every time a binding is added or replaced
+    private final AtomicInteger version = new AtomicInteger();
+
     public BinderImpl() {
         // soft
         bind(TypeReference.class).toGenericProvider(new TypeReferenceGenericProvider()).singleton();
@@ -53,21 +86,196 @@ public class BinderImpl extends ErrorAttachableImpl implements Binder {
     public <T> StdProvider<T> getProvider(Key<T> key) {
         // it's safe, the providers are setted
         // after (provider -> injected provider) conversion
+        BindingTable table = this.table;
+        Provider<?> provider;
+        if (table == null) {
+            provider = bindings.get(key);
+        } else {
+            provider = table.get(key);
+            if (provider == null) {
+                provider = overlay.get(key);
+            }
+        }
         @SuppressWarnings("unchecked")
-        StdProvider<T> provider =
-                (StdProvider<T>) this.bindings.get(key);
-        return provider;
+        StdProvider<T> stdProvider = (StdProvider<T>) provider;
+        return stdProvider;
+    }
+
+    /**
+     * Returns the bound key with the given {@code type} and
+     * qualified with {@code @Named(name)}
+     *
+     * @param type The key type
+     * @param name The key name
+     * @param <T>  The key type
+     * @return The bound key, null if there's no binding
+     * for the given type and name
+     */
+    <T> Key<T> getNamedKey(TypeReference<T> type, String name) {
+        Map<String, Key<?>> keys = namedKeys.get(type.getType());
+        if (keys == null) {
+            return null;
+        }
+        @SuppressWarnings("unchecked")
+        Key<T> key = (Key<T>) keys.get(name);
+        return key;
+    }
+
+    private void indexNamed(Key<?> key) {
+        Annotation qualifier = key.getQualifier();
+        if (qualifier instanceof Named) {
+            namedKeys.computeIfAbsent(key.getType().getType(), type -> new ConcurrentHashMap<>())
+                    .put(((Named) qualifier).value(), key);
+        }
+    }
+
+    /**
+     * Returns the version of the bindings, it changes every
+     * time a binding is added or replaced, so results computed
+     * using the bindings can be invalidated
+     *
+     * @return The bindings version
+     */
+    int getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Ends the configuration of this binder, the current
+     * bindings are moved to a read-optimized table and the
+     * next bindings are stored in a concurrent overlay
+     */
+    void freeze() {
+        if (table != null) {
+            return;
+        }
+        overlay = new ConcurrentHashMap<>();
+        Map<Key<?>, Provider<?>> scoped = new HashMap<>();
+        for (Map.Entry<Key<?>, Provider<?>> binding : bindings.entrySet()) {
+            Provider<?> provider = binding.getValue();
+            if (provider instanceof ScopedProvider) {
+                scoped.put(binding.getKey(), ((ScopedProvider<?>) provider).getScoped());
+            }
+        }
+        singletons.allocate(scoped);
+        table = new BindingTable(bindings);
+        bindings = null;
+    }
+
+    private void allocateSingleton(Key<?> key, Provider<?> provider) {
+        if (provider instanceof ScopedProvider) {
+            singletons.allocate(key, ((ScopedProvider<?>) provider).getScoped());
+        }
+    }
+
+    /**
+     * @return A copy of the currently bound keys
+     */
+    Collection<Key<?>> getKeys() {
+        BindingTable table = this.table;
+        if (table == null) {
+            return new ArrayList<>(bindings.keySet());
+        }
+        Collection<Key<?>> keys = new ArrayList<>(table.size() + overlay.size());
+        table.collectKeys(keys);
+        keys.addAll(overlay.keySet());
+        return keys;
     }
 
     @Override
     public void $unsafeBind(Key<?> key, Provider<?> provider) {
         Validate.notNull(key, "key");
         Validate.notNull(provider, "provider");
+        key = key.intern();
         if (!(provider instanceof StdProvider) || ((StdProvider<?>) provider).onBind(this, key)) {
-            this.bindings.put(key, Providers.normalize(provider));
+            Provider<?> normalized = Providers.normalize(provider);
+            BindingTable table = this.table;
+            if (table == null) {
+                bindings.put(key, normalized);
+            } else {
+                allocateSingleton(key, normalized);
+                if (!table.replace(key, normalized)) {
+                    overlay.put(key, normalized);
+                }
+            }
+            indexNamed(key);
+            version.incrementAndGet();
         }
     }
 
+    /**
+     * Binds the specified {@code provider} to the {@code key}
+     * only if the key is still bound to the {@code expected}
+     * provider (null if the key must be unbound). Used by the
+     * bindings created while provisioning (just-in-time bindings),
+     * where many threads may race to bind the same key, only
+     * one of them wins and the others use its provider.
+     *
+     * @param key      The bound key
+     * @param expected The provider that the thread read before
+     * @param provider The new provider
+     * @param <T>      The key type
+     * @return The provider bound to the key after the operation,
+     * the specified provider (normalized) if this thread won
+     */
+    <T> StdProvider<T> bindIfUnchanged(Key<T> key, Provider<?> expected, Provider<? extends T> provider) {
+        Validate.notNull(key, "key");
+        Validate.notNull(provider, "provider");
+        Key<T> interned = key.intern();
+        if (provider == expected) {
+            return getProvider(interned);
+        }
+        if (provider instanceof StdProvider && !((StdProvider<?>) provider).onBind(this, interned)) {
+            return getProvider(interned);
+        }
+        Provider<?> normalized = Providers.normalize(provider);
+        Provider<?> current;
+        BindingTable table = this.table;
+        if (table == null) {
+            // not frozen, the binder isn't shared yet
+            current = bindings.get(interned);
+            if (current == expected) {
+                bindings.put(interned, normalized);
+                current = normalized;
+            }
+        } else if ((current = table.compareAndSet(interned, expected, normalized)) == null) {
+            if (expected == null) {
+                current = overlay.putIfAbsent(interned, normalized);
+                if (current == null) {
+                    current = normalized;
+                }
+            } else if (overlay.replace(interned, expected, normalized)) {
+                current = normalized;
+            } else {
+                current = overlay.get(interned);
+            }
+        }
+        if (current == normalized) {
+            if (table != null) {
+                allocateSingleton(interned, normalized);
+            }
+            indexNamed(interned);
+            version.incrementAndGet();
+        }
+        @SuppressWarnings("unchecked")
+        StdProvider<T> stdProvider = (StdProvider<T>) current;
+        return stdProvider;
+    }
+
+    @Override
+    public void requireExplicitBindings() {
+        Validate.state(table == null, "The injector was already created");
+        explicitBindingsRequired = true;
+    }
+
+    /**
+     * @return True if the injector requires explicit bindings
+     * @see Binder#requireExplicitBindings()
+     */
+    boolean isExplicitBindingsRequired() {
+        return explicitBindingsRequired;
+    }
+
     @Override
     public <T> QualifiedBindingBuilder<T> bind(TypeReference<T> keyType) {
         return new BindingBuilderImpl<>(this, keyType);
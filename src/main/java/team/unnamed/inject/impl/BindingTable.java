@@ -0,0 +1,158 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject.impl;
+
+import team.unnamed.inject.Provider;
+import team.unnamed.inject.key.Key;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Read-optimized table of the bindings of an injector,
+ * created when the configuration phase ends. The keys
+ * can't be added or removed, it's an open addressing
+ * table (linear probing) using the hash code cached by
+ * the keys, so lookups don't allocate and don't lock.
+ *
+ * <p>The providers can be replaced (i.e. when the scope
+ * of a binding is resolved), the replaced providers are
+ * visible to all the threads</p>
+ */
+final class BindingTable {
+
+    private final Key<?>[] keys;
+    private final int[] hashes;
+    private final AtomicReferenceArray<Provider<?>> providers;
+    private final int mask;
+    private final int size;
+
+    BindingTable(Map<Key<?>, Provider<?>> bindings) {
+        // load factor of 0.5 at most, the probe
+        // sequences are short and there's always
+        // an empty slot to end the search
+        int capacity = Integer.highestOneBit(Math.max(bindings.size(), 1) << 1) << 1;
+        this.keys = new Key<?>[capacity];
+        this.hashes = new int[capacity];
+        this.providers = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.size = bindings.size();
+
+        for (Map.Entry<Key<?>, Provider<?>> entry : bindings.entrySet()) {
+            Key<?> key = entry.getKey();
+            int hash = key.hashCode();
+            int index = spread(hash) & mask;
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            hashes[index] = hash;
+            providers.set(index, entry.getValue());
+        }
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private int indexOf(Key<?> key) {
+        int hash = key.hashCode();
+        int index = spread(hash) & mask;
+        Key<?> checking;
+        while ((checking = keys[index]) != null) {
+            if (checking == key || (hashes[index] == hash && checking.equals(key))) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the provider bound to the specified
+     * {@code key}, or null if the key isn't in this table
+     */
+    Provider<?> get(Key<?> key) {
+        int index = indexOf(key);
+        return index == -1 ? null : providers.get(index);
+    }
+
+    /**
+     * Replaces the provider bound to the specified {@code key}
+     *
+     * @return False if the key isn't in this table
+     */
+    boolean replace(Key<?> key, Provider<?> provider) {
+        int index = indexOf(key);
+        if (index == -1) {
+            return false;
+        }
+        providers.set(index, provider);
+        return true;
+    }
+
+    /**
+     * Replaces the provider bound to the specified {@code key}
+     * only if it's currently bound to the {@code expected} provider
+     *
+     * @return The provider bound to the key after the operation,
+     * null if the key isn't in this table
+     */
+    Provider<?> compareAndSet(Key<?> key, Provider<?> expected, Provider<?> provider) {
+        int index = indexOf(key);
+        if (index == -1) {
+            return null;
+        }
+        if (providers.compareAndSet(index, expected, provider)) {
+            return provider;
+        }
+        return providers.get(index);
+    }
+
+    /**
+     * Adds all the keys of this table to
+     * the specified {@code collection}
+     */
+    void collectKeys(Collection<Key<?>> collection) {
+        for (Key<?> key : keys) {
+            if (key != null) {
+                collection.add(key);
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        Collection<Key<?>> keys = new ArrayList<>(size);
+        collectKeys(keys);
+        return "BindingTable" + keys;
+    }
+
+}
@@ -0,0 +1,126 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject.impl;
+
+import team.unnamed.inject.key.Key;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+
+/**
+ * Handler of the proxies injected to break cyclic dependencies
+ * between constructors. When a constructor requires (directly or
+ * transitively) an interface whose instance is still being
+ * constructed, it receives a proxy that delegates to the
+ * instance once it's constructed.
+ *
+ * <p>The proxy mustn't be used by the constructor that
+ * receives it, the instance doesn't exist yet. If the
+ * construction fails, the proxy can never be used</p>
+ */
+final class ConstructionProxy implements InvocationHandler {
+
+    private final Key<?> key;
+    // true if the methods of the interface must be made
+    // accessible before invoking them (non-public interface)
+    private final boolean restricted;
+    private volatile Object delegate;
+    private volatile boolean failed;
+
+    private ConstructionProxy(Key<?> key, boolean restricted) {
+        this.key = key;
+        this.restricted = restricted;
+    }
+
+    /**
+     * Creates a proxy for the given key
+     *
+     * @param key The key being constructed
+     * @return The proxy, null if the key type
+     * isn't an interface
+     */
+    static Object create(Key<?> key) {
+        Class<?> type = key.getType().getRawType();
+        if (!type.isInterface()) {
+            return null;
+        }
+        return Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class<?>[]{type},
+                new ConstructionProxy(key, !Modifier.isPublic(type.getModifiers()))
+        );
+    }
+
+    /**
+     * Sets the constructed instance of the given proxy
+     *
+     * @param proxy    The proxy
+     * @param instance The constructed instance
+     */
+    static void resolve(Object proxy, Object instance) {
+        ((ConstructionProxy) Proxy.getInvocationHandler(proxy)).delegate = instance;
+    }
+
+    /**
+     * Marks the construction of the given proxy as failed,
+     * the next calls to the proxy throw an exception
+     *
+     * @param proxy The proxy
+     */
+    static void fail(Object proxy) {
+        ((ConstructionProxy) Proxy.getInvocationHandler(proxy)).failed = true;
+    }
+
+    @Override
+    @SuppressWarnings("deprecation") // AccessibleObject#canAccess requires Java 9
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        Object delegate = this.delegate;
+        if (delegate == null) {
+            if (failed) {
+                throw new IllegalStateException("The construction of '" + key + "' failed,"
+                        + " the proxy injected to break the cyclic dependency cannot be used");
+            }
+            if (method.getName().equals("toString") && method.getParameterCount() == 0) {
+                return "Proxy(" + key + ")";
+            }
+            throw new IllegalStateException("The instance of key '" + key + "' is still being"
+                    + " constructed, the proxy injected to break the cyclic dependency"
+                    + " cannot be used yet");
+        }
+        // the proxy class passes the same method instances
+        // in all the calls, so they're made accessible once
+        if (restricted && !method.isAccessible()) {
+            method.setAccessible(true);
+        }
+        try {
+            return method.invoke(delegate, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+}
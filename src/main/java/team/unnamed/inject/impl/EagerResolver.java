@@ -0,0 +1,151 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject.impl;
+
+import team.unnamed.inject.Injector;
+import team.unnamed.inject.key.InjectedKey;
+import team.unnamed.inject.key.Key;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Resolves the explicit bindings of an injector and all
+ * their transitive dependencies, compiling and caching
+ * their provision plans without instantiating anything.
+ * Used by the {@link team.unnamed.inject.Stage#PRODUCTION}
+ * stage
+ */
+final class EagerResolver {
+
+    private final InjectorImpl injector;
+    private final ProvisionStack stack;
+
+    private final Deque<Dependency> pending = new ArrayDeque<>();
+    private final Set<Key<?>> explicitResolved = new HashSet<>();
+    private final Set<Key<?>> implicitResolved = new HashSet<>();
+
+    EagerResolver(InjectorImpl injector, ProvisionStack stack) {
+        this.injector = injector;
+        this.stack = stack;
+    }
+
+    /**
+     * Resolves the given keys and their transitive
+     * dependencies, the errors are attached to the stack
+     *
+     * @param keys The explicitly bound keys
+     */
+    void resolve(Iterable<Key<?>> keys) {
+        for (Key<?> key : keys) {
+            require(key, true, false, null);
+        }
+
+        Dependency dependency;
+        while ((dependency = pending.poll()) != null) {
+            resolve(dependency);
+        }
+    }
+
+    /**
+     * Adds the given key to the keys to resolve
+     *
+     * @param key                 The required key
+     * @param useExplicitBindings Determines if the explicit bindings
+     *                            are used to provide the key
+     * @param optional            Determines if the key is optional,
+     *                            errors of optional keys are ignored
+     * @param requiredBy          The key that requires the given key,
+     *                            null if it's an explicit binding
+     */
+    void require(Key<?> key, boolean useExplicitBindings, boolean optional, Key<?> requiredBy) {
+        Set<Key<?>> resolved = useExplicitBindings ? explicitResolved : implicitResolved;
+        if (resolved.add(key)) {
+            pending.add(new Dependency(key, useExplicitBindings, optional, requiredBy));
+        }
+    }
+
+    /**
+     * Adds the given keys to the keys to resolve, assisted
+     * keys are ignored since they are provided by the user
+     */
+    void require(List<InjectedKey<?>> keys, Key<?> requiredBy) {
+        for (InjectedKey<?> key : keys) {
+            if (!key.isAssisted()) {
+                require(key.getKey(), true, key.isOptional(), requiredBy);
+            }
+        }
+    }
+
+    private void resolve(Dependency dependency) {
+        Key<?> key = dependency.key;
+        Class<?> rawType = key.getType().getRawType();
+        if (rawType == Injector.class || rawType == InjectorImpl.class) {
+            return;
+        }
+
+        int checkpoint = stack.checkpoint();
+        ProvisionPlan<?> plan = injector.getPlan(stack, key, dependency.useExplicitBindings);
+
+        if (plan == null) {
+            if (dependency.optional) {
+                stack.rollback(checkpoint);
+            } else if (dependency.requiredBy != null) {
+                stack.attach(
+                        "Unsatisfied dependency"
+                                + "\n\tKey: " + key
+                                + "\n\tRequired by: " + dependency.requiredBy
+                );
+            }
+            return;
+        }
+
+        plan.collectDependencies(this);
+    }
+
+    private static class Dependency {
+
+        private final Key<?> key;
+        private final boolean useExplicitBindings;
+        private final boolean optional;
+        private final Key<?> requiredBy;
+
+        private Dependency(
+                Key<?> key,
+                boolean useExplicitBindings,
+                boolean optional,
+                Key<?> requiredBy
+        ) {
+            this.key = key;
+            this.useExplicitBindings = useExplicitBindings;
+            this.optional = optional;
+            this.requiredBy = requiredBy;
+        }
+
+    }
+
+}
@@ -29,13 +29,25 @@ import team.unnamed.inject.error.InjectionException;
 import team.unnamed.inject.key.InjectedKey;
 import team.unnamed.inject.key.Key;
 import team.unnamed.inject.key.TypeReference;
+import team.unnamed.inject.provision.Providers;
 import team.unnamed.inject.provision.StdProvider;
+import team.unnamed.inject.provision.std.LinkedProvider;
+import team.unnamed.inject.provision.std.ProviderTypeProvider;
 import team.unnamed.inject.resolve.ComponentResolver;
 import team.unnamed.inject.resolve.solution.InjectableConstructor;
 import team.unnamed.inject.resolve.solution.InjectableMember;
 import team.unnamed.inject.util.Validate;
 
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class InjectorImpl implements Injector {
 
@@ -45,15 +57,47 @@ public class InjectorImpl implements Injector {
     // of the library, you must take care while
     // handling a ProvisionStack, you can cause
     // a StackOverflowError if the stack is
-    // accidentally removed from the thread
+    // accidentally released while being used.
+    // There's one stack per thread, reused by
+    // all the provisions of that thread
     protected final ThreadLocal<ProvisionStack> provisionStackThreadLocal =
-            new ThreadLocal<>();
+            ThreadLocal.withInitial(ProvisionStack::new);
     private final ProvisionHandle provisionHandle;
 
+    // Compiled provision plans, plans for the explicit
+    // bindings and for the implicit bindings (when the
+    // explicit bindings are ignored, like in self-linked
+    // keys) are different
+    private final Map<Key<?>, ProvisionPlan<?>> explicitPlans =
+            new ConcurrentHashMap<>();
+    private final Map<Key<?>, ProvisionPlan<?>> implicitPlans =
+            new ConcurrentHashMap<>();
+    // Keys whose plans couldn't be compiled, with the errors
+    // to report, valid until the bindings change
+    private final Map<Key<?>, Unresolvable> explicitFailures =
+            new ConcurrentHashMap<>();
+    private final Map<Key<?>, Unresolvable> implicitFailures =
+            new ConcurrentHashMap<>();
+    // The explicit plans of the unqualified class keys,
+    // the fast path of getInstance(Class) and getProvider(Class)
+    private final ClassValue<PlanSlot> classPlans = new PlanSlots();
+
     private final BinderImpl binder;
 
+    // Determines if the injector requires explicit bindings,
+    // in that case, only the targets of the explicit links
+    // can be provided without an explicit binding
+    private final boolean explicitBindingsRequired;
+    private final Set<Key<?>> linkTargets;
+
     public InjectorImpl(BinderImpl binder) {
         this.binder = Validate.notNull(binder);
+        // the configuration phase ends here
+        binder.freeze();
+        this.explicitBindingsRequired = binder.isExplicitBindingsRequired();
+        this.linkTargets = explicitBindingsRequired
+                ? scanExplicitBindings()
+                : Collections.emptySet();
         this.provisionHandle = new ProvisionHandle(this, binder);
     }
 
@@ -65,7 +109,7 @@ public class InjectorImpl implements Injector {
         // the type-instance relations are
         // removes automatically when ended
         // with the injection
-        List<String> snapshot = stack.getErrorMessages();
+        int checkpoint = stack.checkpoint();
         Object value = getInstance(stack, key.getKey(), true);
         if (value == null && !key.isOptional()) {
             return ABSENT_INSTANCE;
@@ -73,11 +117,38 @@ public class InjectorImpl implements Injector {
             // remove errors because the injection
             // is optional and we don't need a report
             // of fails that can be valid
-            stack.applySnapshot(snapshot);
+            stack.rollback(checkpoint);
         }
         return value;
     }
 
+    /**
+     * Executes the cached plan for the specified class if
+     * the class was requested before, else, it uses the
+     * overloaded method {@link InjectorImpl#getInstance(TypeReference)}
+     */
+    @Override
+    public <T> T getInstance(Class<T> type) {
+        ProvisionPlan<?> plan = classPlans.get(type).get();
+        ProvisionStack stack = stackForThisThread();
+        // nested provisions use the full path, the
+        // key may be in the stack (cyclic dependencies)
+        if (plan == null || !stack.acquire()) {
+            return getInstance(TypeReference.of(type));
+        }
+        T value;
+        try {
+            @SuppressWarnings("unchecked")
+            ProvisionPlan<T> typedPlan = (ProvisionPlan<T>) plan;
+            value = provide(stack, typedPlan.getKey(), typedPlan);
+        } catch (RuntimeException | Error e) {
+            stack.release();
+            throw e;
+        }
+        releaseStack(stack);
+        return value;
+    }
+
     /**
      * Invokes the overloaded method
      * {@link InjectorImpl#getInstance(ProvisionStack, Key, boolean)}
@@ -85,19 +156,50 @@ public class InjectorImpl implements Injector {
      */
     @Override
     public <T> T getInstance(TypeReference<T> type) {
-        boolean stackWasNotPresent = provisionStackThreadLocal.get() == null;
-        // The creation of a new provision stack indicates
+        return getInstance(Key.of(type));
+    }
+
+    /**
+     * Finds the key using the named bindings index, the
+     * {@link team.unnamed.inject.Named} instance is only
+     * created if there's no binding for the given name
+     */
+    @Override
+    public <T> T getInstance(TypeReference<T> type, String name) {
+        Validate.notNull(type, "type");
+        Validate.notNull(name, "name");
+        Key<T> key = binder.getNamedKey(type, name);
+        if (key == null) {
+            key = Key.of(type, null, Annotations.createNamed(name));
+        }
+        return getInstance(key);
+    }
+
+    @Override
+    public <T> T getInstance(Key<T> key) {
+        Validate.notNull(key, "key");
+        ProvisionStack stack = stackForThisThread();
+        // The acquisition of the provision stack indicates
         // the manual call of getInstance() or injectMembers(),
         // the type cannot be a key. Keys are used for injectable
         // members, not for manually call a inject method
-        T value = getInstance(stackForThisThread(), Key.of(type), true);
-        // We need to clear the stack
+        boolean outermost = stack.acquire();
+        T value;
+        try {
+            value = getInstance(stack, key, true);
+        } catch (RuntimeException | Error e) {
+            if (outermost) {
+                stack.release();
+            }
+            throw e;
+        }
+        // We need to release the stack
         // after a manual injection,
-        // the stack is only cleared if initially
-        // it was null, if not, it is possibly
+        // the stack is only released if initially
+        // it wasn't acquired, if not, it is
         // being used
-        if (stackWasNotPresent) {
-            removeStackFromThisThread();
+        if (outermost) {
+            releaseStack(stack);
         }
         return value;
     }
@@ -109,53 +211,72 @@ public class InjectorImpl implements Injector {
      */
     @Override
     public <T> void injectMembers(TypeReference<T> type, T instance) {
-        boolean stackWasNotPresent = provisionStackThreadLocal.get() == null;
-        // The creation of a new provision stack indicates
-        // the manual call of getInstance() or injectMembers(),
-        // the type cannot be a key. Keys are used for injectable
-        // members, not for manually call a inject method
-        injectMembers(stackForThisThread(), Key.of(type), instance);
-        // We need to clear the stack
-        // after a manual injection,
-        // the stack is only cleared if initially
-        // it was null, if not, it is possibly
-        // being used
-        if (stackWasNotPresent) {
-            removeStackFromThisThread();
-        }
+        injectMembers(Key.of(type), instance);
     }
 
     /**
-     * @return The provision stack in the thread local, if
-     * not present, creates a provision stack and stores
-     * it in the thread local
+     * @return The provision stack of this thread, the
+     * stack is created once and then reused
      */
     public ProvisionStack stackForThisThread() {
-        ProvisionStack stack = provisionStackThreadLocal.get();
-        // the stack doesn't exist, create a new stack
-        // and set to the thread local
-        if (stack == null) {
-            stack = new ProvisionStack();
-            provisionStackThreadLocal.set(stack);
-        }
-        return stack;
+        return provisionStackThreadLocal.get();
     }
 
     /**
-     * Sets the provision stack in this thread to null,
-     * so it should be re-started with {@link InjectorImpl#stackForThisThread}.
+     * Releases the given provision stack, so it can be reused
+     * by the next provisions in this thread, and throws its errors.
      *
      * <p>Simple explanation: There's one {@link ProvisionStack}
      * per thread. This is handled using a {@link ThreadLocal}</p>
+     *
+     * @param stack The provision stack of this thread
      */
-    protected void removeStackFromThisThread() {
-        ProvisionStack stack = provisionStackThreadLocal.get();
-        provisionStackThreadLocal.set(null);
-        if (stack != null && stack.hasErrors()) {
-            throw new InjectionException(stack.formatMessages());
+    protected void releaseStack(ProvisionStack stack) {
+        String errors = stack.hasErrors() ? stack.formatMessages() : null;
+        stack.release();
+        if (errors != null) {
+            throw new InjectionException(errors);
         }
     }
 
+    /**
+     * Resolves all the explicit bindings and their transitive
+     * dependencies, compiling and caching their provision plans,
+     * without instantiating anything
+     *
+     * @throws InjectionException If any of the keys cannot be
+     * resolved, containing all the resolution errors
+     */
+    public void resolveEagerly() {
+        ProvisionStack stack = stackForThisThread();
+        boolean outermost = stack.acquire();
+        try {
+            new EagerResolver(this, stack).resolve(binder.getKeys());
+        } catch (RuntimeException | Error e) {
+            if (outermost) {
+                stack.release();
+            }
+            throw e;
+        }
+        if (outermost) {
+            releaseStack(stack);
+        }
+    }
+
+    @Override
+    public <T> Provider<? extends T> getProvider(Class<T> key) {
+        ProvisionPlan<?> plan = classPlans.get(key).get();
+        if (plan != null) {
+            // the provider was already injected
+            @SuppressWarnings("unchecked")
+            Provider<? extends T> provider = (Provider<? extends T>) plan.getProvider();
+            if (provider != null) {
+                return provider;
+            }
+        }
+        return getProvider(TypeReference.of(key));
+    }
+
     @Override
     public <T> Provider<? extends T> getProvider(TypeReference<T> key) {
         return binder.getProvider(Key.of(key));
@@ -163,10 +284,28 @@ public class InjectorImpl implements Injector {
 
     @Override
     public void injectStaticMembers(Class<?> clazz) {
-        boolean stackWasNotPresent = provisionStackThreadLocal.get() == null;
-        injectMembers(stackForThisThread(), Key.of(TypeReference.of(clazz)), null);
-        if (stackWasNotPresent) {
-            removeStackFromThisThread();
+        injectMembers(Key.of(TypeReference.of(clazz)), null);
+    }
+
+    private <T> void injectMembers(Key<T> key, T instance) {
+        ProvisionStack stack = stackForThisThread();
+        // The acquisition of the provision stack indicates
+        // the manual call of getInstance() or injectMembers(),
+        // the type cannot be a key. Keys are used for injectable
+        // members, not for manually call a inject method
+        boolean outermost = stack.acquire();
+        try {
+            injectMembers(stack, key, instance);
+        } catch (RuntimeException | Error e) {
+            if (outermost) {
+                stack.release();
+            }
+            throw e;
+        }
+        // We need to release the stack
+        // after a manual injection
+        if (outermost) {
+            releaseStack(stack);
         }
     }
 
@@ -215,34 +354,239 @@ public class InjectorImpl implements Injector {
             return stack.get(type);
         }
 
-        AnnotationScanner.bind(type.getType(), binder);
-        AnnotationScanner.scope(type.getType(), binder);
+        // the implicit requests come from self-linked keys,
+        // the key is already marked by the explicit request
+        if (!useExplicitBindings) {
+            ProvisionPlan<T> plan = getPlan(stack, type, false);
+            return plan == null ? null : plan.provide(this, stack);
+        }
+
+        ProvisionPlan<T> plan = getPlan(stack, type, true);
+        if (plan == null) { // the errors are thrown by the caller
+            return null;
+        }
+
+        if (stack.isProviding(type)) {
+            // the instance may be constructed and being
+            // injected, like in the links to the key
+            T constructed = plan.getConstructed(stack);
+            if (constructed != null) {
+                return constructed;
+            }
+            // A cyclic dependency between constructors, the instance
+            // doesn't exist yet, so interfaces are proxied
+            T proxy = stack.proxy(type);
+            if (proxy == null) {
+                stack.attach("Cyclic dependency between constructors: "
+                        + stack.formatProvisionPath(type)
+                        + ". Only interfaces can be proxied to break the cycle");
+            }
+            return proxy;
+        }
+
+        return provide(stack, type, plan);
+    }
+
+    /**
+     * Executes the given plan, marking the key as being
+     * provided, so cyclic dependencies are detected
+     */
+    private <T> T provide(ProvisionStack stack, Key<T> key, ProvisionPlan<T> plan) {
+        T value = null;
+        stack.beginProvision(key);
+        try {
+            value = plan.provide(this, stack);
+        } finally {
+            stack.endProvision(value);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the compiled provision plan for the given {@code key},
+     * the plan is compiled and cached if it wasn't compiled before.
+     *
+     * @param stack               The provision stack
+     * @param key                 The key
+     * @param useExplicitBindings Determines if the explicit bindings
+     *                            should be used to provide the key
+     * @param <T>                 The key type
+     * @return The provision plan, null if the key cannot be provided
+     * (the errors are attached to the stack)
+     */
+    <T> ProvisionPlan<T> getPlan(ProvisionStack stack, Key<T> key, boolean useExplicitBindings) {
+        Map<Key<?>, ProvisionPlan<?>> plans = useExplicitBindings ? explicitPlans : implicitPlans;
+        @SuppressWarnings("unchecked")
+        ProvisionPlan<T> plan = (ProvisionPlan<T>) plans.get(key);
+        if (plan == null) {
+            // failed compilations are cached until the bindings
+            // change, the errors are reported every time the key
+            // is requested (or discarded, for optional keys)
+            Map<Key<?>, Unresolvable> failures = useExplicitBindings ? explicitFailures : implicitFailures;
+            int bindingsVersion = binder.getVersion();
+            Unresolvable failure = failures.get(key);
+            if (failure != null && failure.bindingsVersion == bindingsVersion) {
+                stack.attach(failure.errorMessages);
+                return null;
+            }
+
+            int checkpoint = stack.checkpoint();
+            plan = compilePlan(stack, key, useExplicitBindings);
+            if (plan == null && useExplicitBindings && provisionHandle.isInjectionFailure(key)) {
+                // the bound provider couldn't be injected, the
+                // next request injects it again, not cached
+                return null;
+            }
+            if (plan == null) {
+                List<String> errorMessages = stack.getErrorMessages();
+                failures.put(key, new Unresolvable(
+                        bindingsVersion,
+                        errorMessages.subList(checkpoint, errorMessages.size()).toArray(new String[0])
+                ));
+            } else {
+                if (failure != null) {
+                    failures.remove(key, failure);
+                }
+                // if other thread compiled the plan first, its
+                // plan is used
+                @SuppressWarnings("unchecked")
+                ProvisionPlan<T> existing = (ProvisionPlan<T>) plans.putIfAbsent(key, plan);
+                if (existing != null) {
+                    return existing;
+                }
+                Type type = key.getType().getType();
+                if (useExplicitBindings && type instanceof Class
+                        && key.getQualifierType() == null && key.getQualifier() == null) {
+                    classPlans.get((Class<?>) type).set(plan);
+                }
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * Scans the annotations of the explicitly bound types
+     * and the targets of their links, used when the injector
+     * requires explicit bindings, since the types aren't
+     * scanned when requested
+     *
+     * @return The targets of the links and the provider
+     * classes (including the {@link team.unnamed.inject.ProvidedBy}
+     * providers), they can be constructed without a binding
+     */
+    private Set<Key<?>> scanExplicitBindings() {
+        Set<Key<?>> targets = new HashSet<>();
+        Set<Key<?>> scanned = new HashSet<>();
+        Deque<Key<?>> pending = new ArrayDeque<>(binder.getKeys());
+
+        while (!pending.isEmpty()) {
+            Key<?> key = pending.poll();
+            if (!scanned.add(key)) {
+                continue;
+            }
+            AnnotationScanner.bind(key.getType(), binder);
+            AnnotationScanner.scope(key.getType(), binder);
+
+            StdProvider<?> provider = binder.getProvider(key);
+            if (provider == null) {
+                continue;
+            }
+            Object unwrapped = Providers.unwrap(provider);
+            Key<?> target = null;
+            if (unwrapped instanceof LinkedProvider) {
+                target = ((LinkedProvider<?>) unwrapped).getTarget();
+            } else if (unwrapped instanceof ProviderTypeProvider) {
+                target = Key.of(((ProviderTypeProvider<?>) unwrapped).getProviderClass());
+            }
+            if (target != null) {
+                targets.add(target);
+                pending.add(target);
+            }
+        }
+        return targets;
+    }
+
+    private <T> ProvisionPlan<T> compilePlan(ProvisionStack stack, Key<T> key, boolean useExplicitBindings) {
+        TypeReference<T> type = key.getType();
+
+        if (!explicitBindingsRequired) {
+            AnnotationScanner.bind(type, binder);
+            AnnotationScanner.scope(type, binder);
+        }
         if (useExplicitBindings) {
-            StdProvider<T> provider = provisionHandle.getProviderAndInject(stack, type);
+            int checkpoint = stack.checkpoint();
+            StdProvider<T> provider = provisionHandle.getProviderAndInject(stack, key);
             if (provider != null) {
-                return provider.get(type);
+                return ProvisionPlan.provider(key, provider);
+            } else if (stack.errorCount() != checkpoint) {
+                // the provider couldn't be injected
+                return null;
             }
         }
 
-        InjectableConstructor constructor = ComponentResolver.constructor().get(stack, type.getType());
-        if (constructor == null) { // the errors are thrown by the caller
+        if (explicitBindingsRequired && !linkTargets.contains(key)) {
+            stack.attach("No explicit binding found for key '" + key
+                    + "', the injector requires explicit bindings");
+            return null;
+        }
+
+        InjectableConstructor constructor = ComponentResolver.constructor().get(stack, type);
+        if (constructor == null) {
             return null;
         }
 
-        Object instance = constructor.inject(
-                this,
-                stack,
-                null
+        return ProvisionPlan.constructor(
+                key,
+                constructor,
+                ComponentResolver.fields().get(type),
+                ComponentResolver.methods().get(type)
         );
+    }
 
-        @SuppressWarnings("unchecked")
-        T value = (T) instance;
+    /**
+     * A key that couldn't be provided using the bindings
+     * of the specified version
+     */
+    private static final class Unresolvable {
 
-        if (value != null) {
-            injectMembers(stack, type, value);
+        private final int bindingsVersion;
+        private final String[] errorMessages;
+
+        private Unresolvable(int bindingsVersion, String[] errorMessages) {
+            this.bindingsVersion = bindingsVersion;
+            this.errorMessages = errorMessages;
+        }
+
+    }
+
+    /**
+     * Holds the compiled plan of a class for an injector,
+     * the plan is weakly referenced, the class values live
+     * as long as the classes and the plans can reference
+     * the injector
+     */
+    private static final class PlanSlot {
+
+        private volatile WeakReference<ProvisionPlan<?>> plan;
+
+        ProvisionPlan<?> get() {
+            WeakReference<ProvisionPlan<?>> plan = this.plan;
+            return plan == null ? null : plan.get();
+        }
+
+        void set(ProvisionPlan<?> plan) {
+            this.plan = new WeakReference<>(plan);
+        }
+
+    }
+
+    private static final class PlanSlots extends ClassValue<PlanSlot> {
+
+        @Override
+        protected PlanSlot computeValue(Class<?> type) {
+            return new PlanSlot();
         }
 
-        return value;
     }
 
 }
@@ -24,7 +24,6 @@
 package team.unnamed.inject.impl;
 
 import team.unnamed.inject.key.Key;
-import team.unnamed.inject.provision.Providers;
 import team.unnamed.inject.provision.StdProvider;
 import team.unnamed.inject.provision.std.ScopedProvider;
 import team.unnamed.inject.provision.std.generic.ToGenericProvider;
@@ -51,9 +50,11 @@ public class ProvisionHandle {
         if (provider instanceof ScopedProvider) {
             ScopedProvider<T> scopedProvider = (ScopedProvider<T>) provider;
             if (scopedProvider.requiresJitScoping()) {
-                provider = (StdProvider<T>) scopedProvider
-                        .withScope(match, scopedProvider.getScope());
-                binder.$unsafeBind(match, provider);
+                provider = binder.bindIfUnchanged(
+                        match,
+                        null,
+                        scopedProvider.withScope(match, scopedProvider.getScope())
+                );
             }
         }
 
@@ -64,6 +65,16 @@ public class ProvisionHandle {
         }
     }
 
+    /**
+     * Returns the bound provider for the given key, injecting
+     * it if it wasn't injected
+     *
+     * @param stack The provision stack
+     * @param key   The requested key
+     * @return The injected provider, null if there's no provider
+     * or if it couldn't be injected (the errors are attached
+     * to the stack, see {@link #isInjectionFailure})
+     */
     public <T> StdProvider<T> getProviderAndInject(ProvisionStack stack, Key<T> key) {
         StdProvider<T> provider = binder.getProvider(key);
         if (provider == null) {
@@ -76,10 +87,16 @@ public class ProvisionHandle {
                 return null;
             }
         }
-        if (!provider.isInjected()) {
-            Providers.inject(stack, injector, provider);
-        }
-        return provider;
+        return provider.ensureInjected(stack, injector) ? provider : null;
+    }
+
+    /**
+     * @return True if the given key has a bound provider
+     * that isn't injected, because its injection failed
+     */
+    boolean isInjectionFailure(Key<?> key) {
+        StdProvider<?> provider = binder.getProvider(key);
+        return provider != null && !provider.isInjected();
     }
 
 }
@@ -0,0 +1,412 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject.impl;
+
+import team.unnamed.inject.Injector;
+import team.unnamed.inject.Provider;
+import team.unnamed.inject.key.Key;
+import team.unnamed.inject.provision.DelegatingStdProvider;
+import team.unnamed.inject.provision.StdProvider;
+import team.unnamed.inject.provision.std.LinkedProvider;
+import team.unnamed.inject.provision.std.MethodAsProvider;
+import team.unnamed.inject.provision.std.ScopedProvider;
+import team.unnamed.inject.resolve.invoke.Invokers;
+import team.unnamed.inject.resolve.solution.InjectableConstructor;
+import team.unnamed.inject.resolve.solution.InjectableMember;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * Represents the compiled provisioning steps for a
+ * single key. A plan is created the first time that
+ * a key is requested, after resolving its bindings
+ * (annotation scanning, just-in-time bindings, provider
+ * injection, constructor and members resolution), so the
+ * next requests for the same key just execute the plan
+ * instead of walking the whole provisioning pipeline again.
+ *
+ * <p>Plans can be shared between threads, constructor
+ * plans count their executions so hot types can be
+ * switched to generated invokers, see
+ * {@link Invokers#setGenerationThreshold(int)}</p>
+ *
+ * @param <T> The provided type
+ */
+abstract class ProvisionPlan<T> {
+
+    final Key<T> key;
+
+    ProvisionPlan(Key<T> key) {
+        this.key = key;
+    }
+
+    /**
+     * Creates a plan that delegates the provisioning
+     * to an already injected provider
+     *
+     * @param key      The key being provided
+     * @param provider The injected provider
+     * @param <T>      The provided type
+     * @return The created plan
+     */
+    static <T> ProvisionPlan<T> provider(Key<T> key, StdProvider<? extends T> provider) {
+        if (provider.getClass() == LinkedProvider.class) {
+            @SuppressWarnings("unchecked")
+            LinkedProvider<T> linked = (LinkedProvider<T>) provider;
+            Class<?> targetType = linked.getTarget().getType().getRawType();
+            // the injector isn't provided by a plan
+            if (targetType != Injector.class && targetType != InjectorImpl.class) {
+                return new LinkedPlan<>(key, linked);
+            }
+        }
+        return new ProviderPlan<>(key, provider);
+    }
+
+    /**
+     * Creates a plan that instantiates the key type using
+     * the given constructor and then injects the given members
+     * in the created instance
+     *
+     * @param key         The key being provided
+     * @param constructor The injectable constructor
+     * @param fields      The injectable fields of the type
+     * @param methods     The injectable methods of the type
+     * @param <T>         The provided type
+     * @return The created plan
+     */
+    static <T> ProvisionPlan<T> constructor(
+            Key<T> key,
+            InjectableConstructor constructor,
+            List<? extends InjectableMember> fields,
+            List<? extends InjectableMember> methods
+    ) {
+        List<InjectableMember> members = new ArrayList<>(fields.size() + methods.size());
+        // fields are always injected before methods, static
+        // members are never injected in created instances
+        for (InjectableMember field : fields) {
+            if (!field.isStatic()) {
+                members.add(field);
+            }
+        }
+        for (InjectableMember method : methods) {
+            if (!method.isStatic()) {
+                members.add(method);
+            }
+        }
+        return new ConstructorPlan<>(key, constructor, members.toArray(new InjectableMember[0]));
+    }
+
+    /**
+     * @return The key provided by this plan
+     */
+    Key<T> getKey() {
+        return key;
+    }
+
+    /**
+     * Executes this plan
+     *
+     * @param injector The injector executing this plan
+     * @param stack    The provision stack of the current thread
+     * @return The provided instance, null if the provisioning
+     * failed (errors are attached to the stack)
+     */
+    abstract T provide(InjectorImpl injector, ProvisionStack stack);
+
+    /**
+     * Adds the keys required to execute this plan to
+     * the given resolver, so they're resolved eagerly
+     *
+     * @param resolver The eager resolver
+     */
+    abstract void collectDependencies(EagerResolver resolver);
+
+    /**
+     * Returns the instance that this plan is providing in the
+     * current thread, if it was already constructed (i.e. it's
+     * being injected), used to resolve cyclic dependencies
+     *
+     * @param stack The provision stack of the current thread
+     * @return The constructed instance, null if there's no
+     * constructed instance in the stack
+     */
+    T getConstructed(ProvisionStack stack) {
+        return null;
+    }
+
+    /**
+     * @return The injected provider used by this plan,
+     * null if the key isn't provided by a provider
+     */
+    StdProvider<? extends T> getProvider() {
+        return null;
+    }
+
+    /**
+     * Removes the wrapper layers of the given injected
+     * provider that only forward the get() calls, so the
+     * plans call the wrapped provider directly
+     */
+    private static Provider<?> fuse(Provider<?> provider) {
+        while (true) {
+            if (provider.getClass() == ScopedProvider.class) {
+                provider = ((ScopedProvider<?>) provider).getScoped();
+            } else if (provider.getClass() == DelegatingStdProvider.class) {
+                provider = ((DelegatingStdProvider<?>) provider).getDelegate();
+            } else {
+                return provider;
+            }
+        }
+    }
+
+    private static class ProviderPlan<T> extends ProvisionPlan<T> {
+
+        private final StdProvider<? extends T> provider;
+        // the innermost provider, null if the
+        // provider doesn't have forwarding layers
+        private final Provider<? extends T> fused;
+
+        private ProviderPlan(Key<T> key, StdProvider<? extends T> provider) {
+            super(key);
+            this.provider = provider;
+            @SuppressWarnings("unchecked")
+            Provider<? extends T> fused = (Provider<? extends T>) fuse(provider);
+            this.fused = fused == provider ? null : fused;
+        }
+
+        @Override
+        T provide(InjectorImpl injector, ProvisionStack stack) {
+            // only the outermost provider receives the
+            // matched key, the wrapped providers are
+            // called using get()
+            Provider<? extends T> fused = this.fused;
+            return fused == null ? provider.get(key) : fused.get();
+        }
+
+        @Override
+        StdProvider<? extends T> getProvider() {
+            return provider;
+        }
+
+        @Override
+        void collectDependencies(EagerResolver resolver) {
+            Provider<?> unwrapped = provider;
+            while (true) {
+                if (unwrapped instanceof ScopedProvider) {
+                    unwrapped = ((ScopedProvider<?>) unwrapped).getUnscoped();
+                } else if (unwrapped instanceof DelegatingStdProvider) {
+                    unwrapped = ((DelegatingStdProvider<?>) unwrapped).getDelegate();
+                } else {
+                    break;
+                }
+            }
+
+            // the dependencies of the other providers
+            // are resolved when the providers are injected
+            if (unwrapped instanceof LinkedProvider) {
+                LinkedProvider<?> linked = (LinkedProvider<?>) unwrapped;
+                resolver.require(linked.getTarget(), !linked.isAutoBound(), false, key);
+            } else if (unwrapped instanceof MethodAsProvider) {
+                resolver.require(((MethodAsProvider<?>) unwrapped).getMethod().getKeys(), key);
+            }
+        }
+
+    }
+
+    /**
+     * Plan for keys linked to other keys, executes the
+     * plan of the target key directly, without the lookup
+     * done by {@link LinkedProvider#get()}. Chains of links
+     * are collapsed, the plan of the last key is executed
+     */
+    private static class LinkedPlan<T> extends ProvisionPlan<T> {
+
+        private final LinkedProvider<T> provider;
+        private final Key<? extends T> target;
+        private final boolean useExplicitBindings;
+
+        // the plan and the last key of the link chain,
+        // resolved the first time, the key is written
+        // before the plan and read after it
+        private Key<? extends T> lastTarget;
+        private volatile ProvisionPlan<? extends T> targetPlan;
+
+        private LinkedPlan(Key<T> key, LinkedProvider<T> provider) {
+            super(key);
+            this.provider = provider;
+            this.target = provider.getTarget();
+            // self-links use the implicit bindings
+            this.useExplicitBindings = !provider.isAutoBound();
+        }
+
+        @Override
+        T provide(InjectorImpl injector, ProvisionStack stack) {
+            ProvisionPlan<? extends T> plan = targetPlan;
+            if (plan == null) {
+                plan = resolveTarget(injector, stack);
+                if (plan == null) { // the errors are attached to the stack
+                    return null;
+                }
+            }
+            // cyclic dependencies, same as InjectorImpl#getInstance,
+            // the instance can be in the stack using the target key
+            // or the last key of the chain
+            if (stack.has(target)) {
+                return stack.get(target);
+            }
+            Key<? extends T> lastTarget = this.lastTarget;
+            if (lastTarget != target && stack.has(lastTarget)) {
+                return stack.get(lastTarget);
+            }
+            return plan.provide(injector, stack);
+        }
+
+        @Override
+        T getConstructed(ProvisionStack stack) {
+            if (stack.has(target)) {
+                return stack.get(target);
+            }
+            Key<? extends T> lastTarget = this.lastTarget;
+            if (lastTarget != null && stack.has(lastTarget)) {
+                return stack.get(lastTarget);
+            }
+            return null;
+        }
+
+        private ProvisionPlan<? extends T> resolveTarget(InjectorImpl injector, ProvisionStack stack) {
+            Key<? extends T> last = target;
+            ProvisionPlan<? extends T> plan = injector.getPlan(stack, target, useExplicitBindings);
+            // links don't push their keys to the stack,
+            // so the intermediate links can be skipped
+            while (plan instanceof LinkedPlan) {
+                @SuppressWarnings("unchecked")
+                LinkedPlan<? extends T> linked = (LinkedPlan<? extends T>) plan;
+                if (linked == this || linked.target.equals(key)) {
+                    // a link cycle, don't collapse it
+                    break;
+                }
+                ProvisionPlan<? extends T> next = linked.targetPlan;
+                if (next == null) {
+                    next = linked.resolveTarget(injector, stack);
+                    if (next == null) {
+                        return null;
+                    }
+                }
+                plan = next;
+                last = linked.lastTarget;
+            }
+            if (plan != null) {
+                lastTarget = last;
+                targetPlan = plan;
+            }
+            return plan;
+        }
+
+        @Override
+        void collectDependencies(EagerResolver resolver) {
+            resolver.require(target, useExplicitBindings, false, key);
+        }
+
+        @Override
+        StdProvider<? extends T> getProvider() {
+            return provider;
+        }
+
+    }
+
+    private static class ConstructorPlan<T> extends ProvisionPlan<T> {
+
+        @SuppressWarnings("rawtypes")
+        private static final AtomicIntegerFieldUpdater<ConstructorPlan> PROVISIONS =
+                AtomicIntegerFieldUpdater.newUpdater(ConstructorPlan.class, "provisions");
+
+        private final InjectableConstructor constructor;
+        private final InjectableMember[] members;
+
+        // only incremented until the threshold is reached, so
+        // exactly one thread compiles the plan
+        private volatile int provisions;
+
+        private ConstructorPlan(
+                Key<T> key,
+                InjectableConstructor constructor,
+                InjectableMember[] members
+        ) {
+            super(key);
+            this.constructor = constructor;
+            this.members = members;
+        }
+
+        @Override
+        T provide(InjectorImpl injector, ProvisionStack stack) {
+            int threshold = Invokers.getGenerationThreshold();
+            if (threshold != 0 && provisions < threshold
+                    && PROVISIONS.incrementAndGet(this) == threshold) {
+                compile();
+            }
+
+            @SuppressWarnings("unchecked")
+            T value = (T) constructor.inject(injector, stack, null);
+
+            if (value == null) {
+                return null;
+            }
+
+            if (members.length != 0) {
+                // push the instance so cyclic dependencies
+                // can be resolved using it
+                stack.push(key, value);
+                for (InjectableMember member : members) {
+                    member.inject(injector, stack, value);
+                }
+                stack.pop();
+            }
+            return value;
+        }
+
+        @Override
+        T getConstructed(ProvisionStack stack) {
+            return stack.get(key);
+        }
+
+        @Override
+        void collectDependencies(EagerResolver resolver) {
+            resolver.require(constructor.getKeys(), key);
+            for (InjectableMember member : members) {
+                resolver.require(member.getKeys(), key);
+            }
+        }
+
+        private void compile() {
+            constructor.compile();
+            for (InjectableMember member : members) {
+                member.compile();
+            }
+        }
+
+    }
+
+}
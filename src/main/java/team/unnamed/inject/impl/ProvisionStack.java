@@ -26,104 +26,292 @@ package team.unnamed.inject.impl;
 import team.unnamed.inject.error.ErrorAttachableImpl;
 import team.unnamed.inject.key.Key;
 
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.Map;
+import java.util.Arrays;
 
+/**
+ * The provision stack of a thread, contains the keys being
+ * provided and their instances (if already created), used to
+ * resolve cyclic dependencies and to collect the provision
+ * errors.
+ *
+ * <p>The stack is backed by arrays and reused by all the
+ * provisions of its thread, so pushing and popping entries
+ * doesn't allocate. The stacks are usually shallow, so a
+ * linear search is faster than hashing</p>
+ *
+ * <p>The keys being provided, but not constructed yet, are
+ * also tracked in reusable arrays, indexed by an open addressing
+ * table, so cyclic dependencies between constructors are detected
+ * in constant time, also without allocating</p>
+ */
 public class ProvisionStack extends ErrorAttachableImpl {
 
-    // Used to invoke an O(1) "get" method
-    private final Map<Key<?>, Object> values =
-            new HashMap<>();
-    // The real provision Stack, contains a relation of
-    private final LinkedList<KeyInstanceEntry<?>> stack =
-            new LinkedList<>();
+    private static final int INITIAL_CAPACITY = 16;
+
+    // the top of the stack is at (size - 1)
+    private Key<?>[] keys = new Key<?>[INITIAL_CAPACITY];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private Object[] values = new Object[INITIAL_CAPACITY];
+    private int size;
+
+    // the keys being provided, in order, and the proxies
+    // created for them (null if none)
+    private Key<?>[] providing = new Key<?>[INITIAL_CAPACITY];
+    private Object[] proxies = new Object[INITIAL_CAPACITY];
+    private int providingSize;
+    // the positions (plus one) of the keys in the providing
+    // array, using linear probing, zero means empty. Twice
+    // as large as the array, so it's at most half full
+    private int[] providingTable = new int[INITIAL_CAPACITY << 1];
+
+    // determines if the stack is being used by
+    // a provision started by an injector entry point
+    private boolean acquired;
 
     public boolean has(Key<?> key) {
-        return values.containsKey(key);
+        return indexOf(key) != -1;
     }
 
     public <T> T get(Key<T> key) {
+        int index = indexOf(key);
+        if (index == -1) {
+            return null;
+        }
         // the cast is safe, the
-        // map is modified only with the
-        // generic method ProvisionStack#add(...)
+        // array is modified only with the
+        // generic method ProvisionStack#push(...)
         @SuppressWarnings("unchecked")
-        T value = (T) values.get(key);
+        T value = (T) values[index];
         return value;
     }
 
     public void pop() {
-        Map.Entry<Key<?>, Object> entry = stack.removeFirst();
-        if (entry != null) {
-            values.remove(entry.getKey());
+        if (size > 0) {
+            size--;
+            // don't retain the instances
+            keys[size] = null;
+            values[size] = null;
         }
     }
 
     public <T> void push(Key<T> key, T value) {
-        values.put(key, value);
-        stack.addFirst(new KeyInstanceEntry<>(key, value));
+        if (size == keys.length) {
+            int capacity = size << 1;
+            keys = Arrays.copyOf(keys, capacity);
+            hashes = Arrays.copyOf(hashes, capacity);
+            values = Arrays.copyOf(values, capacity);
+        }
+        keys[size] = key;
+        hashes[size] = key.hashCode();
+        values[size] = value;
+        size++;
     }
 
-    @Override
-    public String toString() {
-        StringBuilder builder = new StringBuilder();
-        builder.append('(');
-        builder.append(errorCount());
-        builder.append(" errors");
-        builder.append(") ");
-        Iterator<KeyInstanceEntry<?>> entries = stack.iterator();
-        while (entries.hasNext()) {
-            KeyInstanceEntry<?> entry = entries.next();
-            builder.append(entry.getKey());
-            if (entries.hasNext()) {
-                builder.append(" -> ");
+    /**
+     * Marks the given key as being provided, until
+     * {@link ProvisionStack#endProvision} is called
+     *
+     * @param key The key being provided
+     */
+    public void beginProvision(Key<?> key) {
+        if (providingSize == providing.length) {
+            int capacity = providingSize << 1;
+            providing = Arrays.copyOf(providing, capacity);
+            proxies = Arrays.copyOf(proxies, capacity);
+            providingTable = new int[capacity << 1];
+            for (int i = 0; i < providingSize; i++) {
+                index(i);
             }
         }
-        return builder.toString();
+        providing[providingSize] = key;
+        index(providingSize++);
     }
 
-    private static class KeyInstanceEntry<T> implements Map.Entry<Key<?>, Object> {
+    /**
+     * Unmarks the last key marked by {@link ProvisionStack#beginProvision},
+     * the proxies created for it start delegating to the instance
+     *
+     * @param value The provided instance, null if the
+     *              provisioning failed
+     */
+    public void endProvision(Object value) {
+        int position = providingSize - 1;
+        unindex(position);
+        Object proxy = proxies[position];
+        providing[position] = null;
+        proxies[position] = null;
+        providingSize = position;
+        if (proxy != null) {
+            if (value == null) {
+                ConstructionProxy.fail(proxy);
+            } else {
+                ConstructionProxy.resolve(proxy, value);
+            }
+        }
+    }
 
-        private final Key<T> key;
-        private final T value;
+    /**
+     * @return True if the given key is being provided
+     * and its instance doesn't exist yet
+     */
+    public boolean isProviding(Key<?> key) {
+        return providingSize != 0 && positionOf(key) != -1;
+    }
 
-        public KeyInstanceEntry(Key<T> key, T value) {
-            this.key = key;
-            this.value = value;
+    /**
+     * Returns the proxy used to break the cyclic dependency
+     * on the given key, that is being provided
+     *
+     * @param key The requested key
+     * @return The proxy, null if the key type isn't an interface
+     */
+    public <T> T proxy(Key<T> key) {
+        int position = positionOf(key);
+        if (position == -1) {
+            return null;
+        }
+        Object proxy = proxies[position];
+        if (proxy == null) {
+            proxy = ConstructionProxy.create(key);
+            proxies[position] = proxy;
         }
+        @SuppressWarnings("unchecked")
+        T value = (T) proxy;
+        return value;
+    }
 
-        public Key<?> getKey() {
-            return key;
+    /**
+     * @return The path of keys being provided, ending with
+     * the given key, used in the error messages
+     */
+    String formatProvisionPath(Key<?> key) {
+        StringBuilder builder = new StringBuilder();
+        int position = positionOf(key);
+        if (position != -1) {
+            for (int i = position; i < providingSize; i++) {
+                builder.append(providing[i]).append(" -> ");
+            }
         }
+        return builder.append(key).toString();
+    }
 
-        public Object getValue() {
-            return value;
+    /**
+     * Marks this stack as used by the current provision
+     *
+     * @return True if the stack wasn't being used, the
+     * caller is the outermost provision and must release
+     * the stack when finished
+     */
+    public boolean acquire() {
+        if (acquired) {
+            return false;
         }
+        acquired = true;
+        // errors attached while the stack wasn't acquired
+        // (i.e. by providers called by the user) are
+        // never reported
+        rollback(0);
+        return true;
+    }
 
-        public T setValue(Object value) {
-            // it's not really handled like
-            // an entry, it's used like a javafx.util.Pair
-            throw new UnsupportedOperationException("This entry is immutable!");
+    /**
+     * Releases this stack, removing all its entries and
+     * errors, so it can be reused by the next provision
+     */
+    public void release() {
+        acquired = false;
+        while (size > 0) {
+            pop();
         }
+        if (providingSize != 0) {
+            Arrays.fill(providing, 0, providingSize, null);
+            Arrays.fill(proxies, 0, providingSize, null);
+            Arrays.fill(providingTable, 0);
+            providingSize = 0;
+        }
+        rollback(0);
+    }
+
+    /**
+     * @return The position of the given key in the
+     * providing array, -1 if it isn't being provided
+     */
+    private int positionOf(Key<?> key) {
+        int[] table = providingTable;
+        int mask = table.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            int entry = table[i];
+            if (entry == 0) {
+                return -1;
+            }
+            Key<?> checking = providing[entry - 1];
+            if (checking == key || checking.equals(key)) {
+                return entry - 1;
+            }
+        }
+    }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            KeyInstanceEntry<?> that = (KeyInstanceEntry<?>) o;
-            return key.equals(that.key) &&
-                    value.equals(that.value);
+    private void index(int position) {
+        int[] table = providingTable;
+        int mask = table.length - 1;
+        int i = slot(providing[position], mask);
+        while (table[i] != 0) {
+            i = (i + 1) & mask;
         }
+        table[i] = position + 1;
+    }
+
+    private void unindex(int position) {
+        int[] table = providingTable;
+        int mask = table.length - 1;
+        int hole = slot(providing[position], mask);
+        while (table[hole] != position + 1) {
+            hole = (hole + 1) & mask;
+        }
+        // shift back the next entries of the probe sequence,
+        // so the lookups don't stop at the removed entry
+        for (int i = (hole + 1) & mask; table[i] != 0; i = (i + 1) & mask) {
+            int home = slot(providing[table[i] - 1], mask);
+            if (((i - home) & mask) >= ((i - hole) & mask)) {
+                table[hole] = table[i];
+                hole = i;
+            }
+        }
+        table[hole] = 0;
+    }
+
+    private static int slot(Key<?> key, int mask) {
+        int hash = key.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
 
-        @Override
-        public int hashCode() {
-            int result = 1;
-            result = 31 * result + key.hashCode();
-            result = 31 * result + value.hashCode();
-            return result;
+    private int indexOf(Key<?> key) {
+        int hash = key.hashCode();
+        // search from the top, the most recently
+        // pushed keys are the most requested ones
+        for (int i = size - 1; i >= 0; i--) {
+            Key<?> checking = keys[i];
+            if (checking == key || (hashes[i] == hash && checking.equals(key))) {
+                return i;
+            }
         }
+        return -1;
+    }
 
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder();
+        builder.append('(');
+        builder.append(errorCount());
+        builder.append(" errors");
+        builder.append(") ");
+        for (int i = size - 1; i >= 0; i--) {
+            builder.append(keys[i]);
+            if (i != 0) {
+                builder.append(" -> ");
+            }
+        }
+        return builder.toString();
     }
 
 }
@@ -0,0 +1,319 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject.key;
+
+import team.unnamed.inject.Named;
+import team.unnamed.inject.impl.Annotations;
+import team.unnamed.inject.util.ElementFormatter;
+
+import java.io.Serializable;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Value representation of a qualifier annotation, used
+ * by {@link Key} to replace the annotation instances created
+ * by the JDK, that reflectively invoke every member on
+ * {@link Object#equals} and {@link Object#hashCode}.
+ *
+ * <p>The member values are read once, the hash code is
+ * precomputed and two canonical qualifiers are compared
+ * field by field. The canonical annotation is still an
+ * instance of the annotation type, created by a
+ * {@link Proxy} that uses this class as handler.</p>
+ */
+final class CanonicalQualifier implements InvocationHandler, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    // the members of every annotation type, read only
+    // once, null if a member isn't accessible
+    private static final ClassValue<Members> MEMBERS = new ClassValue<Members>() {
+        @Override
+        protected Members computeValue(Class<?> type) {
+            Method[] methods = type.getDeclaredMethods();
+            String[] names = new String[methods.length];
+            for (int i = 0; i < methods.length; i++) {
+                try {
+                    methods[i].setAccessible(true);
+                } catch (RuntimeException e) {
+                    return null;
+                }
+                names[i] = methods[i].getName();
+            }
+            return new Members(methods, names);
+        }
+    };
+
+    private final Class<? extends Annotation> type;
+    // the member names, shared by all the instances of
+    // the same annotation type in this runtime
+    private final String[] names;
+    private final Object[] values;
+    private final int hashCode;
+
+    private transient String toString;
+
+    private CanonicalQualifier(
+            Class<? extends Annotation> type,
+            String[] names,
+            Object[] values
+    ) {
+        this.type = type;
+        this.names = names;
+        this.values = values;
+        this.hashCode = computeHashCode();
+    }
+
+    /**
+     * Returns a fast equivalent of the given {@code annotation}. Only
+     * the annotations created by the JDK are replaced, annotations
+     * implemented by hand (like the {@link Named} instances created
+     * by {@link Annotations#createNamed}) are returned as-is
+     *
+     * @param annotation The qualifier annotation
+     * @return The canonical annotation
+     */
+    static Annotation canonicalize(Annotation annotation) {
+        Class<?> annotationClass = annotation.getClass();
+        if (!Proxy.isProxyClass(annotationClass)
+                || Proxy.getInvocationHandler(annotation) instanceof CanonicalQualifier) {
+            return annotation;
+        }
+        Class<? extends Annotation> type = annotation.annotationType();
+        if (type == Named.class) {
+            return Annotations.createNamed(((Named) annotation).value());
+        }
+        Members members = MEMBERS.get(type);
+        if (members == null) {
+            return annotation;
+        }
+        Object[] values = new Object[members.methods.length];
+        for (int i = 0; i < values.length; i++) {
+            try {
+                values[i] = members.methods[i].invoke(annotation);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                return annotation;
+            }
+        }
+        return (Annotation) Proxy.newProxyInstance(
+                type.getClassLoader(),
+                new Class<?>[]{type},
+                new CanonicalQualifier(type, members.names, values)
+        );
+    }
+
+    /**
+     * Returns the canonical qualifier handling the given
+     * {@code annotation}, or null if it isn't canonical
+     */
+    static CanonicalQualifier of(Annotation annotation) {
+        if (annotation == null || !Proxy.isProxyClass(annotation.getClass())) {
+            return null;
+        }
+        InvocationHandler handler = Proxy.getInvocationHandler(annotation);
+        return handler instanceof CanonicalQualifier
+                ? (CanonicalQualifier) handler
+                : null;
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        String name = method.getName();
+        if (args != null && args.length == 1
+                && name.equals("equals")
+                && method.getParameterTypes()[0] == Object.class) {
+            Object other = args[0];
+            if (proxy == other) {
+                return true;
+            }
+            CanonicalQualifier canonical = other instanceof Annotation
+                    ? of((Annotation) other)
+                    : null;
+            return canonical != null
+                    ? equals(canonical)
+                    : equalsTo(other);
+        }
+        switch (name) {
+            case "hashCode":
+                return hashCode;
+            case "annotationType":
+                return type;
+            case "toString": {
+                String string = toString;
+                if (string == null) {
+                    toString = string = ElementFormatter.annotationToString((Annotation) proxy);
+                }
+                return string;
+            }
+            default: {
+                for (int i = 0; i < names.length; i++) {
+                    if (names[i].equals(name)) {
+                        return copy(values[i]);
+                    }
+                }
+                throw new IllegalStateException("Unknown annotation member: " + method);
+            }
+        }
+    }
+
+    /**
+     * Compares the member values of this qualifier with the
+     * members of an annotation that isn't canonical
+     */
+    private boolean equalsTo(Object other) {
+        if (!type.isInstance(other)) {
+            return false;
+        }
+        Members members = MEMBERS.get(type);
+        for (int i = 0; i < names.length; i++) {
+            Method member = members.methods[i];
+            Object value;
+            try {
+                value = member.invoke(other);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                return false;
+            }
+            if (!Objects.deepEquals(valueOf(member.getName()), value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Object valueOf(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    private int computeHashCode() {
+        // as specified by Annotation.hashCode()
+        int result = 0;
+        for (int i = 0; i < names.length; i++) {
+            result += (127 * names[i].hashCode()) ^ memberHashCode(values[i]);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CanonicalQualifier)) return false;
+        CanonicalQualifier other = (CanonicalQualifier) o;
+        if (hashCode != other.hashCode || type != other.type) {
+            return false;
+        }
+        if (names == other.names) {
+            // same member order, compare the values directly
+            for (int i = 0; i < values.length; i++) {
+                if (!Objects.deepEquals(values[i], other.values[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        // deserialized, the member order may be different
+        for (int i = 0; i < names.length; i++) {
+            if (!Objects.deepEquals(values[i], other.valueOf(names[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    private static int memberHashCode(Object value) {
+        if (!value.getClass().isArray()) {
+            return value.hashCode();
+        } else if (value instanceof Object[]) {
+            return Arrays.hashCode((Object[]) value);
+        } else if (value instanceof int[]) {
+            return Arrays.hashCode((int[]) value);
+        } else if (value instanceof long[]) {
+            return Arrays.hashCode((long[]) value);
+        } else if (value instanceof boolean[]) {
+            return Arrays.hashCode((boolean[]) value);
+        } else if (value instanceof byte[]) {
+            return Arrays.hashCode((byte[]) value);
+        } else if (value instanceof short[]) {
+            return Arrays.hashCode((short[]) value);
+        } else if (value instanceof char[]) {
+            return Arrays.hashCode((char[]) value);
+        } else if (value instanceof float[]) {
+            return Arrays.hashCode((float[]) value);
+        } else {
+            return Arrays.hashCode((double[]) value);
+        }
+    }
+
+    private static Object copy(Object value) {
+        if (!value.getClass().isArray()) {
+            return value;
+        } else if (value instanceof Object[]) {
+            return ((Object[]) value).clone();
+        } else if (value instanceof int[]) {
+            return ((int[]) value).clone();
+        } else if (value instanceof long[]) {
+            return ((long[]) value).clone();
+        } else if (value instanceof boolean[]) {
+            return ((boolean[]) value).clone();
+        } else if (value instanceof byte[]) {
+            return ((byte[]) value).clone();
+        } else if (value instanceof short[]) {
+            return ((short[]) value).clone();
+        } else if (value instanceof char[]) {
+            return ((char[]) value).clone();
+        } else if (value instanceof float[]) {
+            return ((float[]) value).clone();
+        } else {
+            return ((double[]) value).clone();
+        }
+    }
+
+    private static final class Members {
+
+        private final Method[] methods;
+        private final String[] names;
+
+        private Members(Method[] methods, String[] names) {
+            this.methods = methods;
+            this.names = names;
+        }
+
+    }
+
+}
@@ -39,7 +39,10 @@ public final class InjectedKey<T> {
     private final boolean assisted;
 
     public InjectedKey(Key<T> key, boolean optional, boolean assisted) {
-        this.key = Validate.notNull(key, "key");
+        // injected keys are stored in the resolved
+        // solutions, intern it so it can be compared
+        // by identity with the binding keys
+        this.key = Validate.notNull(key, "key").intern();
         this.optional = optional;
         this.assisted = assisted;
     }
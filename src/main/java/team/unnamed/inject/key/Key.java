@@ -30,8 +30,12 @@ import team.unnamed.inject.util.Validate;
 
 import java.io.Serializable;
 import java.lang.annotation.Annotation;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Type;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.WeakHashMap;
 
 /**
  * Represents a binding key used to store a relation of Key -&gt; Provider.
@@ -48,6 +52,20 @@ public final class Key<T> implements CompositeType, Serializable {
 
     private static final long serialVersionUID = 987654321L;
 
+    // canonical unqualified keys for classes, the values
+    // are stored in the classes, so they can be unloaded
+    private static final ClassValue<Key<?>> RAW_KEYS = new ClassValue<Key<?>>() {
+        @Override
+        protected Key<?> computeValue(Class<?> type) {
+            return new Key<>(TypeReference.of(type), null, null);
+        }
+    };
+
+    // interned keys that aren't raw class keys, weakly
+    // held, so the types can be unloaded
+    private static final Map<Key<?>, WeakReference<Key<?>>> INTERNED =
+            new WeakHashMap<>();
+
     // The generic or raw type reference
     private final TypeReference<T> type;
 
@@ -58,9 +76,16 @@ public final class Key<T> implements CompositeType, Serializable {
 
     // The qualifier instance, used
     // when instances are used as qualifiers,
-    // its value can be null
+    // its value can be null. Annotations created
+    // by the JDK are replaced by a canonical
+    // equivalent, see CanonicalQualifier
     private final Annotation qualifier;
 
+    // The handler of the canonical qualifier,
+    // compared directly, without invoking the
+    // proxy, its value can be null
+    private final CanonicalQualifier canonicalQualifier;
+
     // This class is an immutable class, so
     // we can cache the hashcode and optimize
     // a bit the hashCode() method
@@ -78,7 +103,8 @@ public final class Key<T> implements CompositeType, Serializable {
         );
         this.type = type.canonicalize();
         this.qualifierType = qualifierType;
-        this.qualifier = qualifier;
+        this.qualifier = qualifier == null ? null : CanonicalQualifier.canonicalize(qualifier);
+        this.canonicalQualifier = CanonicalQualifier.of(this.qualifier);
         this.hashCode = computeHashCode();
     }
 
@@ -87,6 +113,15 @@ public final class Key<T> implements CompositeType, Serializable {
     }
 
     public static <T> Key<T> of(TypeReference<T> type) {
+        Validate.notNull(type, "type");
+        Type rawType = type.getType();
+        if (rawType instanceof Class) {
+            // the keys are immutable, the same
+            // instance is returned for a class
+            @SuppressWarnings("unchecked")
+            Key<T> canonical = (Key<T>) RAW_KEYS.get((Class<?>) rawType);
+            return canonical;
+        }
         return new Key<>(type, null, null);
     }
 
@@ -95,9 +130,39 @@ public final class Key<T> implements CompositeType, Serializable {
             Class<? extends Annotation> qualifierType,
             Annotation qualifier
     ) {
+        if (qualifierType == null && qualifier == null) {
+            return of(type);
+        }
         return new Key<>(type, qualifierType, qualifier);
     }
 
+    /**
+     * Returns the canonical instance of this key, equal
+     * keys return the same instance, so they can be
+     * compared by identity. Unqualified class keys are
+     * always canonical, use this method for keys that are
+     * stored (i.e. binding keys or injection point keys)
+     *
+     * @return The canonical key
+     */
+    public Key<T> intern() {
+        if (qualifierType == null && qualifier == null
+                && type.getType() instanceof Class) {
+            return of(type);
+        }
+        synchronized (INTERNED) {
+            WeakReference<Key<?>> reference = INTERNED.get(this);
+            Key<?> interned = reference == null ? null : reference.get();
+            if (interned == null) {
+                INTERNED.put(this, new WeakReference<>(this));
+                return this;
+            }
+            @SuppressWarnings("unchecked")
+            Key<T> canonical = (Key<T>) interned;
+            return canonical;
+        }
+    }
+
     /**
      * Determines if the {@link Key} represented by this is a raw-type
      *
@@ -154,7 +219,7 @@ public final class Key<T> implements CompositeType, Serializable {
      * @return The new key
      */
     public <R> Key<R> withType(TypeReference<R> type) {
-        return new Key<>(type, qualifierType, qualifier);
+        return of(type, qualifierType, qualifier);
     }
 
     /**
@@ -164,7 +229,7 @@ public final class Key<T> implements CompositeType, Serializable {
      * @return The new key
      */
     public Key<T> withQualifier(Annotation qualifier) {
-        return new Key<>(type, null, qualifier);
+        return of(type, null, qualifier);
     }
 
     /**
@@ -174,7 +239,7 @@ public final class Key<T> implements CompositeType, Serializable {
      * @return The new key
      */
     public Key<T> withQualifier(Class<? extends Annotation> qualifierType) {
-        return new Key<>(type, qualifierType, null);
+        return of(type, qualifierType, null);
     }
 
     @Override
@@ -184,12 +249,25 @@ public final class Key<T> implements CompositeType, Serializable {
         Key<?> key = (Key<?>) o;
         return hashCode == key.hashCode &&
                 type.equals(key.type) &&
-                Objects.equals(qualifier, key.qualifier) &&
+                qualifierEquals(key) &&
                 Objects.equals(qualifierType, key.qualifierType);
     }
 
+    private boolean qualifierEquals(Key<?> key) {
+        if (canonicalQualifier != null && key.canonicalQualifier != null) {
+            return canonicalQualifier.equals(key.canonicalQualifier);
+        }
+        return Objects.equals(qualifier, key.qualifier);
+    }
+
     private int computeHashCode() {
-        return Objects.hash(type, qualifier, qualifierType);
+        // same as Objects.hash(type, qualifier, qualifierType)
+        // without creating the varargs array
+        int result = 31 + type.hashCode();
+        result = 31 * result + (canonicalQualifier == null
+                ? Objects.hashCode(qualifier)
+                : canonicalQualifier.hashCode());
+        return 31 * result + Objects.hashCode(qualifierType);
     }
 
     @Override
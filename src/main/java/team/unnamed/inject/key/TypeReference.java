@@ -34,6 +34,16 @@ import java.util.Map;
 
 public class TypeReference<T> extends AbstractTypeWrapper implements CompositeType {
 
+    // canonical type references for classes, the
+    // values are stored in the classes, so they can
+    // be unloaded
+    private static final ClassValue<TypeReference<?>> RAW_TYPES = new ClassValue<TypeReference<?>>() {
+        @Override
+        protected TypeReference<?> computeValue(Class<?> type) {
+            return new TypeReference<>(type);
+        }
+    };
+
     private final Class<T> rawType;
     private final Type type;
 
@@ -70,6 +80,13 @@ public class TypeReference<T> extends AbstractTypeWrapper implements CompositeTy
     }
 
     public static <T> TypeReference<T> of(Type type) {
+        if (type instanceof Class) {
+            // the type references are immutable, the
+            // same instance is returned for a class
+            @SuppressWarnings("unchecked")
+            TypeReference<T> canonical = (TypeReference<T>) RAW_TYPES.get((Class<?>) type);
+            return canonical;
+        }
         return new TypeReference<>(type);
     }
 
@@ -66,7 +66,7 @@ class CollectionBoundProvider<E>
                 );
             }
         }
-        injected = true;
+        setInjected(true);
     }
 
     @Override
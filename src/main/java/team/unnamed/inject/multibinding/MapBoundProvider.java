@@ -46,7 +46,7 @@ class MapBoundProvider<K, V>
     @Override
     public void inject(ProvisionStack stack, InjectorImpl injector) {
         delegates.forEach((key, valueProvider) -> Providers.inject(stack, injector, valueProvider));
-        injected = true;
+        setInjected(true);
     }
 
     @Override
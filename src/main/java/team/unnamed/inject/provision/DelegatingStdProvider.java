@@ -64,7 +64,7 @@ public class DelegatingStdProvider<T>
     @Override
     public void inject(ProvisionStack stack, InjectorImpl injector) {
         Providers.inject(stack, injector, delegate);
-        injected = true;
+        setInjected(true);
     }
 
     @Override
@@ -32,16 +32,226 @@ import team.unnamed.inject.key.Key;
 import team.unnamed.inject.provision.std.ScopedProvider;
 import team.unnamed.inject.scope.Scope;
 
+import team.unnamed.inject.error.InjectionException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
 public abstract class StdProvider<T> implements Provider<T> {
 
-    protected boolean injected; // TODO: Make this atomic
+    // state of the provider injection, null if the provider wasn't
+    // injected, an Injection token while being injected by a
+    // thread, and INJECTED when finished
+    private static final Object INJECTED = new Object();
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<StdProvider, Object> INJECTION_STATE =
+            AtomicReferenceFieldUpdater.newUpdater(StdProvider.class, Object.class, "injectionState");
+
+    // the innermost provider being injected by each
+    // thread, only set while injecting
+    private static final ThreadLocal<Injection> INJECTING = new ThreadLocal<>();
+
+    // the threads waiting for a provider injected by
+    // other thread, the "waits-for" graph used to
+    // detect deadlocks between threads
+    private static final Map<Thread, Wait> WAITING = new ConcurrentHashMap<>();
+
+    private volatile Object injectionState;
 
     public boolean isInjected() {
-        return injected;
+        return injectionState == INJECTED;
+    }
+
+    /**
+     * Injects this provider if it wasn't injected, the
+     * provider is injected only once, even if many threads
+     * call this method at the same time, one of them injects
+     * the provider and the others wait until it finishes.
+     *
+     * <p>Re-entrant calls (i.e. cyclic dependencies while
+     * injecting the provider) return immediately. When the
+     * provider is injected, it only costs a volatile read</p>
+     *
+     * <p>If the injection attaches errors to the stack, the
+     * provider isn't marked as injected, so the next request
+     * tries again. If the threads injecting providers wait for
+     * each other, one of them fails with an {@link InjectionException},
+     * so the others can continue</p>
+     *
+     * @param stack    The thread injection stack
+     * @param injector The injector used to inject this provider
+     * @return False if the injection failed (the errors
+     * are attached to the stack)
+     */
+    public final boolean ensureInjected(ProvisionStack stack, InjectorImpl injector) {
+        if (injectionState == INJECTED) {
+            return true;
+        }
+        Thread current = Thread.currentThread();
+        Injection token = null;
+        while (true) {
+            Object state = injectionState;
+            if (state == INJECTED) {
+                return true;
+            } else if (state == null) {
+                if (token == null) {
+                    token = new Injection(this, current, INJECTING.get());
+                }
+                if (INJECTION_STATE.compareAndSet(this, null, token)) {
+                    return injectOnce(stack, injector, token);
+                }
+            } else {
+                Injection injection = (Injection) state;
+                if (injection.owner == current) {
+                    return true;
+                }
+                awaitInjection(injection);
+            }
+        }
+    }
+
+    private boolean injectOnce(ProvisionStack stack, InjectorImpl injector, Injection token) {
+        boolean success = false;
+        int checkpoint = stack.checkpoint();
+        INJECTING.set(token);
+        try {
+            inject(stack, injector);
+            success = stack.errorCount() == checkpoint;
+        } finally {
+            if (token.parent == null) {
+                INJECTING.remove();
+            } else {
+                INJECTING.set(token.parent);
+            }
+            // if the injection failed, the next request tries again
+            injectionState = success ? INJECTED : null;
+            token.release();
+        }
+        return success;
+    }
+
+    private void awaitInjection(Injection injection) {
+        Thread thread = Thread.currentThread();
+        injection.waiters.add(thread);
+        // registered before parking, if the other threads
+        // (transitively) wait for this thread, they will
+        // never finish their injections
+        WAITING.put(thread, new Wait(thread, injection, INJECTING.get()));
+        boolean interrupted = false;
+        try {
+            while (injectionState == injection) {
+                List<Wait> cycle = findCycle(thread, injection);
+                if (cycle != null) {
+                    // every thread of the cycle may detect it, only
+                    // the victim fails, so the others can continue
+                    Thread victim = victimOf(cycle);
+                    if (victim == thread) {
+                        injection.waiters.remove(thread);
+                        throw new InjectionException(formatDeadlock(cycle));
+                    }
+                    // the victim may have checked before this
+                    // thread started waiting, it must check again
+                    LockSupport.unpark(victim);
+                }
+                LockSupport.park(injection);
+                if (Thread.interrupted()) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            WAITING.remove(thread);
+            if (interrupted) {
+                // restore the interruption status
+                thread.interrupt();
+            }
+        }
+    }
+
+    /**
+     * Follows the "waits-for" graph starting from the owner
+     * of the given {@code injection}
+     *
+     * @return The waits that form a cycle with the given
+     * {@code thread}, null if there's no cycle
+     */
+    private static List<Wait> findCycle(Thread thread, Injection injection) {
+        List<Wait> cycle = new ArrayList<>();
+        cycle.add(WAITING.get(thread));
+        Thread owner = injection.owner;
+        // the graph may contain a cycle that doesn't
+        // contain this thread, so the steps are limited
+        int steps = WAITING.size();
+        for (int i = 0; i <= steps; i++) {
+            if (owner == thread) {
+                return cycle;
+            }
+            Wait wait = WAITING.get(owner);
+            // the wait may have ended, but the thread
+            // isn't removed from the graph yet
+            if (wait == null || wait.waitingFor.released) {
+                return null;
+            }
+            cycle.add(wait);
+            owner = wait.waitingFor.owner;
+        }
+        return null;
+    }
+
+    /**
+     * Chooses the thread that fails to break the given
+     * cycle, the same thread is chosen by all the threads
+     * of the cycle
+     *
+     * @return The thread with the lowest id in the cycle
+     */
+    @SuppressWarnings("deprecation") // Thread#threadId() requires Java 19
+    private static Thread victimOf(List<Wait> cycle) {
+        Thread victim = null;
+        for (Wait wait : cycle) {
+            if (victim == null || wait.thread.getId() < victim.getId()) {
+                victim = wait.thread;
+            }
+        }
+        return victim;
+    }
+
+    private static String formatDeadlock(List<Wait> cycle) {
+        StringBuilder message = new StringBuilder(
+                "Deadlock detected while injecting providers, the threads wait for each other:"
+        );
+        for (Wait wait : cycle) {
+            message.append("\n    Thread '")
+                    .append(wait.thread.getName())
+                    .append("' injects ");
+            List<String> path = new ArrayList<>();
+            for (Injection holding = wait.holding; holding != null; holding = holding.parent) {
+                path.add(0, holding.provider.toString());
+            }
+            message.append(String.join(" -> ", path))
+                    .append(" and waits for ")
+                    .append(wait.waitingFor.provider);
+        }
+        return message.toString();
     }
 
+    /**
+     * Marks this provider as injected or not injected,
+     * ignored while the provider is being injected, the
+     * state is set when the injection finishes
+     *
+     * @param injected True if the provider is injected
+     */
     public void setInjected(boolean injected) {
-        this.injected = injected;
+        Object state = injectionState;
+        if (!(state instanceof Injection)) {
+            INJECTION_STATE.compareAndSet(this, state, injected ? INJECTED : null);
+        }
     }
 
     /**
@@ -60,7 +270,7 @@ public abstract class StdProvider<T> implements Provider<T> {
      */
     public Provider<T> withScope(Key<?> match, Scope scope) {
         StdProvider<T> scopedProvider = new ScopedProvider<>(this, scope);
-        scopedProvider.injected = injected;
+        scopedProvider.setInjected(isInjected());
         return scopedProvider;
     }
 
@@ -77,7 +287,7 @@ public abstract class StdProvider<T> implements Provider<T> {
      * @param injector The injector used to inject this provider
      */
     public void inject(ProvisionStack stack, InjectorImpl injector) {
-        injected = true;
+        setInjected(true);
         injector.injectMembers(this);
     }
 
@@ -110,4 +320,62 @@ public abstract class StdProvider<T> implements Provider<T> {
         return get();
     }
 
+    /**
+     * Token stored in the state of a provider while
+     * it's being injected, only exists during the
+     * injection
+     */
+    private static final class Injection {
+
+        private final StdProvider<?> provider;
+        private final Thread owner;
+        private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>();
+        // the provider that the owner was injecting when
+        // this injection started, can be null
+        private final Injection parent;
+        // set when the injection ends, the owner
+        // doesn't wait for this token after it
+        private volatile boolean released;
+
+        private Injection(StdProvider<?> provider, Thread owner, Injection parent) {
+            this.provider = provider;
+            this.owner = owner;
+            this.parent = parent;
+        }
+
+        /**
+         * Unparks the threads waiting for the
+         * injection, must be called after the
+         * token is removed from the provider
+         */
+        private void release() {
+            released = true;
+            Thread waiter;
+            while ((waiter = waiters.poll()) != null) {
+                LockSupport.unpark(waiter);
+            }
+        }
+
+    }
+
+    /**
+     * A thread waiting for a provider injected by other
+     * thread, an edge of the "waits-for" graph
+     */
+    private static final class Wait {
+
+        private final Thread thread;
+        private final Injection waitingFor;
+        // the innermost provider being injected by the
+        // waiting thread, null if it isn't injecting any
+        private final Injection holding;
+
+        private Wait(Thread thread, Injection waitingFor, Injection holding) {
+            this.thread = thread;
+            this.waitingFor = waitingFor;
+            this.holding = holding;
+        }
+
+    }
+
 }
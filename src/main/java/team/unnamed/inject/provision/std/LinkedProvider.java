@@ -65,7 +65,7 @@ public class LinkedProvider<T>
     public void inject(ProvisionStack stack, InjectorImpl injector) {
         // Sets the injector, used to get an instance of the target type
         this.injector = injector;
-        this.injected = true;
+        setInjected(true);
     }
 
     @Override
@@ -91,10 +91,17 @@ public class MethodAsProvider<T>
         return providers;
     }
 
+    /**
+     * @return The method used as provider
+     */
+    public InjectableMethod getMethod() {
+        return method;
+    }
+
     @Override
     public void inject(ProvisionStack stack, InjectorImpl injector) {
         this.injector = injector;
-        this.injected = true;
+        setInjected(true);
     }
 
     @Override
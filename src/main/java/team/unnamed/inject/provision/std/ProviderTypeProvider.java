@@ -27,6 +27,7 @@ import team.unnamed.inject.Injector;
 import team.unnamed.inject.Provider;
 import team.unnamed.inject.impl.InjectorImpl;
 import team.unnamed.inject.impl.ProvisionStack;
+import team.unnamed.inject.key.Key;
 import team.unnamed.inject.key.TypeReference;
 import team.unnamed.inject.provision.StdProvider;
 
@@ -74,8 +75,15 @@ public class ProviderTypeProvider<T>
 
     @Override
     public void inject(ProvisionStack stack, InjectorImpl injector) {
-        provider = injector.getInstance(providerClass);
-        injected = true;
+        Provider<? extends T> provider = injector.getInstance(stack, Key.of(providerClass), true);
+        if (provider == null) {
+            // i.e. the injector requires explicit bindings
+            // and the provider class isn't bound
+            stack.attach("Cannot instantiate the provider class '" + providerClass + "'");
+            return;
+        }
+        this.provider = provider;
+        setInjected(true);
     }
 
     @Override
@@ -83,6 +91,13 @@ public class ProviderTypeProvider<T>
         return provider.get();
     }
 
+    /**
+     * @return The class of the targeted provider
+     */
+    public TypeReference<? extends Provider<? extends T>> getProviderClass() {
+        return providerClass;
+    }
+
     /**
      * @return The targeted provider instance
      */
@@ -76,7 +76,7 @@ public class ScopedProvider<T>
     public void inject(ProvisionStack stack, InjectorImpl injector) {
         Providers.inject(stack, injector, unscoped);
         Providers.inject(stack, injector, scoped);
-        injected = true;
+        setInjected(true);
     }
 
     @Override
@@ -47,7 +47,7 @@ public class ToGenericProvider<T>
     @Override
     public void inject(ProvisionStack stack, InjectorImpl injector) {
         // don't inject null references
-        injected = true;
+        setInjected(true);
     }
 
     @Override
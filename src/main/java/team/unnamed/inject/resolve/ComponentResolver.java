@@ -24,9 +24,7 @@
 package team.unnamed.inject.resolve;
 
 import team.unnamed.inject.key.TypeReference;
-
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import team.unnamed.inject.util.Validate;
 
 /**
  * Resolves all the members of an specific type.
@@ -36,13 +34,20 @@ import java.util.concurrent.ConcurrentHashMap;
  * <p>In case of a cached members box, the members
  * are resolved once and stored, then, the same
  * resolved members are returned</p>
+ *
+ * <p>Types with a {@link GeneratedComponent} (generated
+ * at compile time by the annotation processor) are
+ * resolved without reflection</p>
+ *
+ * <p>The cached members don't prevent the classes from
+ * being unloaded, see {@link ComponentResolver#invalidate}</p>
  */
 public class ComponentResolver {
 
     static final KeyResolver KEY_RESOLVER
             = new KeyResolver();
-    static final Map<TypeReference<?>, Solution> SOLUTIONS =
-            new ConcurrentHashMap<>();
+    static final TypeCache<Solution> SOLUTIONS =
+            new TypeCache<>(ComponentResolver::resolve);
     private static final ConstructorResolver CONSTRUCTOR_RESOLVER
             = new ConstructorResolver();
     private static final FieldResolver FIELD_RESOLVER
@@ -50,6 +55,49 @@ public class ComponentResolver {
     private static final MethodResolver METHOD_RESOLVER
             = new MethodResolver();
 
+    /**
+     * Gets the solution for the given type, resolving it if
+     * absent. The solution is created from the generated
+     * component of the type, if present, else, using reflection.
+     *
+     * <p>A type is resolved only once, even if many threads
+     * request it at the same time</p>
+     *
+     * @param type The type
+     * @return The solution of the type
+     */
+    static Solution solution(TypeReference<?> type) {
+        // resolving a solution never resolves other
+        // solutions, so it can be computed by the cache
+        return SOLUTIONS.get(type);
+    }
+
+    /**
+     * Removes the cached members of the classes loaded by
+     * the given class loader (including the types using
+     * those classes as type arguments), so they're resolved
+     * again when requested. Useful when the classes are
+     * redefined or the class loader is being discarded.
+     *
+     * <p>Already created injectors keep their compiled
+     * provision plans</p>
+     *
+     * @param classLoader The class loader
+     */
+    public static void invalidate(ClassLoader classLoader) {
+        Validate.notNull(classLoader, "classLoader");
+        SOLUTIONS.invalidate(classLoader);
+        GeneratedComponents.invalidate(classLoader);
+    }
+
+    private static Solution resolve(TypeReference<?> type) {
+        Solution solution = GeneratedComponents.lookup(type);
+        if (solution == null) {
+            solution = Solution.resolve(type);
+        }
+        return solution;
+    }
+
     public static KeyResolver keys() {
         return KEY_RESOLVER;
     }
@@ -33,11 +33,6 @@ import java.lang.reflect.Constructor;
 
 public final class ConstructorResolver {
 
-    /**
-     * Sentinel value for indicate that a constructor was not resolved yet
-     */
-    static final Object CONSTRUCTOR_NOT_DEFINED = new Object();
-
     ConstructorResolver() {
     }
 
@@ -53,19 +48,9 @@ public final class ConstructorResolver {
             ErrorAttachable errors,
             TypeReference<?> type
     ) {
-        Solution solution = ComponentResolver.SOLUTIONS.get(type);
-        // null constructor is valid and indicates that the constructor was
-        // already resolved, the sentinel value indicates that the constructor
-        // was never resolved!
-        if (solution == null || solution.constructor == CONSTRUCTOR_NOT_DEFINED) {
-            if (solution == null) {
-                solution = new Solution();
-                ComponentResolver.SOLUTIONS.put(type, solution);
-            }
-            solution.constructor = resolve(errors, type, Inject.class);
-        }
-        // so it's null or an instance of injectable constructor
-        return (InjectableConstructor) solution.constructor;
+        // the resolution errors are attached
+        // every time the constructor is requested
+        return ComponentResolver.solution(type).constructor(errors);
     }
 
     /**
@@ -46,19 +46,7 @@ public final class FieldResolver {
      * @return The injectable fields
      */
     public List<InjectableField> get(TypeReference<?> type) {
-        Solution solution = ComponentResolver.SOLUTIONS.get(type);
-        if (solution == null || solution.fields == null) {
-            if (solution == null) {
-                solution = new Solution();
-                ComponentResolver.SOLUTIONS.put(type, solution);
-            }
-            if (solution.fields == null) {
-                // the resolve(...) method should never return
-                // a null pointer, so it's never resolved again
-                solution.fields = resolve(type);
-            }
-        }
-        return solution.fields;
+        return ComponentResolver.solution(type).fields();
     }
 
     /**
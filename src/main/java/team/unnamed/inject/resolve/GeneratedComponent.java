@@ -0,0 +1,74 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject.resolve;
+
+import team.unnamed.inject.resolve.solution.InjectableConstructor;
+import team.unnamed.inject.resolve.solution.InjectableField;
+import team.unnamed.inject.resolve.solution.InjectableMethod;
+
+import java.util.List;
+
+/**
+ * Represents the injectable members of a type, generated
+ * at compile time by the {@code inject-processor} annotation
+ * processor. Generated components are discovered by the
+ * {@link ComponentResolver} before resolving the members
+ * using reflection.
+ *
+ * <p>The implementations are top-level classes named after
+ * the binary name of the type they represent (i.e. {@code Outer$Inner}),
+ * appending {@link #CLASS_SUFFIX}, and are listed in the
+ * {@link #INDEX_RESOURCE} resource, one type per line</p>
+ */
+public interface GeneratedComponent {
+
+    /**
+     * The path of the resource listing the binary names of
+     * the types with a generated component
+     */
+    String INDEX_RESOURCE = "META-INF/team.unnamed.inject/components";
+
+    /**
+     * The suffix appended to the generated component class names
+     */
+    String CLASS_SUFFIX = "_InjectComponent";
+
+    /**
+     * @return The injectable constructor of the type
+     */
+    InjectableConstructor constructor();
+
+    /**
+     * @return The injectable fields of the type, including
+     * the fields of its superclasses
+     */
+    List<InjectableField> fields();
+
+    /**
+     * @return The injectable methods of the type, including
+     * the methods of its superclasses
+     */
+    List<InjectableMethod> methods();
+
+}
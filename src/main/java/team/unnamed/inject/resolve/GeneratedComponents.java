@@ -0,0 +1,163 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject.resolve;
+
+import team.unnamed.inject.key.TypeReference;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+/**
+ * Discovers the {@link GeneratedComponent}s of the
+ * types, using the index generated by the processor
+ * for every class loader.
+ *
+ * <p>Only the components defined by the class loader of
+ * a type are used, a child class loader may define a
+ * class with the same name of a class with a component
+ * in its parent (i.e. child-first class loaders), that
+ * component can't be applied to the child class</p>
+ */
+final class GeneratedComponents {
+
+    private static final Map<ClassLoader, Set<String>> INDEXES = new WeakHashMap<>();
+
+    private GeneratedComponents() {
+    }
+
+    /**
+     * Creates a solution for the given type using its
+     * generated component
+     *
+     * @param type The type
+     * @return The solution, or null if the type doesn't
+     * have a usable generated component
+     */
+    static Solution lookup(TypeReference<?> type) {
+        // generated components don't resolve type variables
+        if (!type.isPureRawType()) {
+            return null;
+        }
+
+        Class<?> rawType = type.getRawType();
+        ClassLoader classLoader = rawType.getClassLoader();
+
+        if (classLoader == null || !indexOf(classLoader).contains(rawType.getName())) {
+            return null;
+        }
+
+        String componentName = rawType.getName() + GeneratedComponent.CLASS_SUFFIX;
+        GeneratedComponent component;
+        try {
+            Class<?> componentClass = Class.forName(componentName, false, classLoader);
+            if (componentClass.getClassLoader() != classLoader) {
+                // the component of other class with the same name
+                return null;
+            }
+            component = (GeneratedComponent) componentClass
+                    .getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            // missing or outdated generated code, use reflection
+            return null;
+        }
+
+        return Solution.of(component.constructor(), component.fields(), component.methods());
+    }
+
+    /**
+     * Removes the cached index of the given class loader,
+     * so it's read again
+     */
+    static void invalidate(ClassLoader classLoader) {
+        synchronized (INDEXES) {
+            INDEXES.remove(classLoader);
+        }
+    }
+
+    private static Set<String> indexOf(ClassLoader classLoader) {
+        synchronized (INDEXES) {
+            Set<String> index = INDEXES.get(classLoader);
+            if (index == null) {
+                index = readIndex(classLoader);
+                INDEXES.put(classLoader, index);
+            }
+            return index;
+        }
+    }
+
+    /**
+     * Reads the index entries of the given class loader, the
+     * entries found by its parent are ignored, they're read
+     * for the parent
+     */
+    private static Set<String> readIndex(ClassLoader classLoader) {
+        Set<String> index = new HashSet<>();
+        try {
+            Set<String> inherited = new HashSet<>();
+            ClassLoader parent = classLoader.getParent();
+            if (parent != null) {
+                Enumeration<URL> resources = parent.getResources(GeneratedComponent.INDEX_RESOURCE);
+                while (resources.hasMoreElements()) {
+                    // compared as strings, URL#equals resolves hosts
+                    inherited.add(resources.nextElement().toString());
+                }
+            }
+
+            Enumeration<URL> resources = classLoader.getResources(GeneratedComponent.INDEX_RESOURCE);
+            while (resources.hasMoreElements()) {
+                URL resource = resources.nextElement();
+                if (inherited.contains(resource.toString())) {
+                    continue;
+                }
+                try (InputStream input = resource.openStream()) {
+                    BufferedReader reader = new BufferedReader(
+                            new InputStreamReader(input, StandardCharsets.UTF_8));
+                    String line;
+                    while ((line = reader.readLine()) != null) {
+                        line = line.trim();
+                        if (!line.isEmpty() && line.charAt(0) != '#') {
+                            index.add(line);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // unreadable index, use reflection
+            return Collections.emptySet();
+        }
+        return index;
+    }
+
+}
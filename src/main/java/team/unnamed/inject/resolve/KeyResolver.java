@@ -25,12 +25,13 @@ package team.unnamed.inject.resolve;
 
 import team.unnamed.inject.Qualifier;
 import team.unnamed.inject.assisted.Assist;
-import team.unnamed.inject.impl.Annotations;
 import team.unnamed.inject.key.InjectedKey;
 import team.unnamed.inject.key.Key;
 import team.unnamed.inject.key.TypeReference;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
@@ -38,6 +39,19 @@ import java.util.List;
 
 public final class KeyResolver {
 
+    /**
+     * Classification of every annotation type found
+     * on an injected element, computed once per type
+     * instead of once per annotation occurrence
+     */
+    private static final ClassValue<AnnotationKind> KINDS = new ClassValue<AnnotationKind>() {
+        @Override
+        @SuppressWarnings("unchecked")
+        protected AnnotationKind computeValue(Class<?> type) {
+            return new AnnotationKind((Class<? extends Annotation>) type);
+        }
+    };
+
     KeyResolver() {
     }
 
@@ -74,23 +88,20 @@ public final class KeyResolver {
 
         for (Annotation annotation : annotations) {
             Class<? extends Annotation> annotationType = annotation.annotationType();
-            if (!optional) {
-                String simpleName = annotationType.getSimpleName();
-                // Please use "Nullable" instead of "nullable"
-                if (simpleName.equalsIgnoreCase("Nullable")) {
-                    optional = true;
-                    continue;
-                }
+            AnnotationKind kind = KINDS.get(annotationType);
+            if (!optional && kind.nullable) {
+                optional = true;
+                continue;
             }
-            if (!assisted && annotationType == Assist.class) {
+            if (!assisted && kind.assist) {
                 assisted = true;
             }
             if (
                     qualifierType == null
                             && qualifier == null
-                            && annotationType.isAnnotationPresent(Qualifier.class)
+                            && kind.qualifier
             ) {
-                if (Annotations.containsOnlyDefaultValues(annotation)) {
+                if (kind.containsOnlyDefaultValues(annotation)) {
                     qualifierType = annotationType;
                 } else {
                     qualifier = annotation;
@@ -102,4 +113,81 @@ public final class KeyResolver {
         return new InjectedKey<>(key, optional, assisted);
     }
 
+    /**
+     * Precomputed information about an annotation type,
+     * the members are looked up only once, and an annotation
+     * with a member without default value is never checked
+     * reflectively
+     */
+    private static final class AnnotationKind {
+
+        private final boolean nullable;
+        private final boolean assist;
+        private final boolean qualifier;
+
+        /**
+         * The annotation members and their default values,
+         * null if any member doesn't have a default value,
+         * so no instance can contain only default values
+         */
+        private final Method[] members;
+        private final Object[] defaultValues;
+
+        private AnnotationKind(Class<? extends Annotation> type) {
+            // Please use "Nullable" instead of "nullable"
+            this.nullable = type.getSimpleName().equalsIgnoreCase("Nullable");
+            this.assist = type == Assist.class;
+            this.qualifier = type.isAnnotationPresent(Qualifier.class);
+
+            Method[] members = null;
+            Object[] defaultValues = null;
+
+            if (qualifier) {
+                members = type.getDeclaredMethods();
+                defaultValues = new Object[members.length];
+                for (int i = 0; i < members.length; i++) {
+                    Object defaultValue = members[i].getDefaultValue();
+                    // no default value given
+                    if (defaultValue == null) {
+                        members = null;
+                        defaultValues = null;
+                        break;
+                    }
+                    defaultValues[i] = defaultValue;
+                    try {
+                        members[i].setAccessible(true);
+                    } catch (RuntimeException ignored) {
+                        // invoke() will fail and the member is
+                        // skipped, as Annotations does
+                    }
+                }
+            }
+
+            this.members = members;
+            this.defaultValues = defaultValues;
+        }
+
+        /**
+         * Determines if the given annotation (of this type) contains
+         * only default values, equivalent to {@link team.unnamed.inject.impl.Annotations#containsOnlyDefaultValues}
+         */
+        private boolean containsOnlyDefaultValues(Annotation annotation) {
+            if (members == null) {
+                return false;
+            }
+            for (int i = 0; i < members.length; i++) {
+                try {
+                    Object value = members[i].invoke(annotation);
+                    // if the actual value isn't equal to the default value
+                    if (!defaultValues[i].equals(value)) {
+                        return false;
+                    }
+                } catch (IllegalAccessException | InvocationTargetException ignored) {
+                }
+            }
+            return true;
+        }
+
+    }
+
 }
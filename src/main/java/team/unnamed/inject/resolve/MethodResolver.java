@@ -48,19 +48,7 @@ public final class MethodResolver {
     public List<InjectableMethod> get(
             TypeReference<?> type
     ) {
-        Solution solution = ComponentResolver.SOLUTIONS.get(type);
-        if (solution == null || solution.methods == null) {
-            if (solution == null) {
-                solution = new Solution();
-                ComponentResolver.SOLUTIONS.put(type, solution);
-            }
-            if (solution.methods == null) {
-                // the resolve(...) method should never return
-                // a null pointer, so it's never resolved again
-                solution.methods = resolve(type, Inject.class);
-            }
-        }
-        return solution.methods;
+        return ComponentResolver.solution(type).methods();
     }
 
     /**
@@ -23,18 +23,124 @@
  */
 package team.unnamed.inject.resolve;
 
+import team.unnamed.inject.Inject;
+import team.unnamed.inject.error.ErrorAttachable;
+import team.unnamed.inject.error.ErrorAttachableImpl;
+import team.unnamed.inject.key.TypeReference;
+import team.unnamed.inject.resolve.solution.InjectableConstructor;
 import team.unnamed.inject.resolve.solution.InjectableField;
 import team.unnamed.inject.resolve.solution.InjectableMethod;
 
+import java.util.Collections;
 import java.util.List;
 
 /**
- * Represents an already resolved class
+ * Represents an already resolved class, the solutions
+ * are immutable, so they can be shared between threads.
+ *
+ * <p>The constructor is resolved with the members, but
+ * its resolution errors are only reported (every time)
+ * when the constructor is requested, a resolution failure
+ * is thrown as a new exception on every request, caused
+ * by the original failure</p>
  */
-class Solution {
+final class Solution {
+
+    private static final String[] NO_ERRORS = new String[0];
+
+    private final InjectableConstructor constructor;
+    private final String[] constructorErrors;
+    private final String constructorFailureMessage;
+    private final RuntimeException constructorFailure;
+    private final List<InjectableField> fields;
+    private final List<InjectableMethod> methods;
+
+    private Solution(
+            InjectableConstructor constructor,
+            String[] constructorErrors,
+            String constructorFailureMessage,
+            RuntimeException constructorFailure,
+            List<InjectableField> fields,
+            List<InjectableMethod> methods
+    ) {
+        this.constructor = constructor;
+        this.constructorErrors = constructorErrors;
+        this.constructorFailureMessage = constructorFailureMessage;
+        this.constructorFailure = constructorFailure;
+        this.fields = Collections.unmodifiableList(fields);
+        this.methods = Collections.unmodifiableList(methods);
+    }
+
+    /**
+     * Creates a solution using the given already
+     * resolved members
+     */
+    static Solution of(
+            InjectableConstructor constructor,
+            List<InjectableField> fields,
+            List<InjectableMethod> methods
+    ) {
+        return new Solution(constructor, NO_ERRORS, null, null, fields, methods);
+    }
+
+    /**
+     * Resolves the constructor and members of the
+     * given type using reflection
+     */
+    static Solution resolve(TypeReference<?> type) {
+        List<InjectableField> fields = ComponentResolver.fields().resolve(type);
+        List<InjectableMethod> methods = ComponentResolver.methods().resolve(type, Inject.class);
+
+        ErrorAttachable errors = new ErrorAttachableImpl();
+        InjectableConstructor constructor = null;
+        String failureMessage = null;
+        RuntimeException failure = null;
+        try {
+            constructor = ComponentResolver.constructor().resolve(errors, type, Inject.class);
+        } catch (RuntimeException e) {
+            // thrown when the constructor is requested
+            failureMessage = "Cannot resolve the constructor of type '" + type + "'";
+            failure = e;
+        }
+
+        return new Solution(
+                constructor,
+                errors.getErrorMessages().toArray(NO_ERRORS),
+                failureMessage,
+                failure,
+                fields,
+                methods
+        );
+    }
+
+    /**
+     * Returns the resolved constructor, attaching
+     * its resolution errors to the given attachable
+     *
+     * @param errors The error attachable
+     * @return The constructor, null if it cannot
+     * be resolved
+     * @throws IllegalStateException If the constructor
+     * resolution failed, caused by the original failure
+     */
+    InjectableConstructor constructor(ErrorAttachable errors) {
+        if (constructorFailure != null) {
+            // a new exception for every caller, the cached
+            // failure is shared between threads
+            throw new IllegalStateException(constructorFailureMessage, constructorFailure);
+        }
+        if (constructorErrors.length != 0) {
+            errors.attach(constructorErrors);
+        }
+        return constructor;
+    }
+
+    List<InjectableField> fields() {
+        return fields;
+    }
 
-    Object constructor = ConstructorResolver.CONSTRUCTOR_NOT_DEFINED;
-    List<InjectableField> fields;
-    List<InjectableMethod> methods;
+    List<InjectableMethod> methods() {
+        return methods;
+    }
 
 }
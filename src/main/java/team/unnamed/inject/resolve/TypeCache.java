@@ -0,0 +1,188 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject.resolve;
+
+import team.unnamed.inject.key.TypeReference;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Cache of values computed for types that doesn't prevent
+ * the classes from being unloaded. The values of a type are
+ * stored in a {@link ClassValue} of its "anchor" class, the
+ * component class loaded by the most specific class loader
+ * (i.e. {@code Foo} for {@code List<Foo>}), so they're
+ * collected with the class loader.
+ *
+ * <p>Every value is computed once, even if many threads
+ * request it at the same time. The values of the classes
+ * of a class loader can be removed using
+ * {@link TypeCache#invalidate(ClassLoader)} (i.e. when the
+ * classes are redefined)</p>
+ *
+ * @param <V> The cached values type
+ */
+final class TypeCache<V> {
+
+    private final Function<TypeReference<?>, V> resolver;
+    // the anchor classes of every class loader, both are
+    // weakly referenced, used to invalidate the values
+    private final Map<ClassLoader, Set<Class<?>>> anchors = new WeakHashMap<>();
+    private final ClassValue<Map<TypeReference<?>, V>> values = new ClassValue<Map<TypeReference<?>, V>>() {
+        @Override
+        protected Map<TypeReference<?>, V> computeValue(Class<?> type) {
+            ClassLoader classLoader = type.getClassLoader();
+            // bootstrap classes are never unloaded
+            if (classLoader != null) {
+                synchronized (anchors) {
+                    anchors.computeIfAbsent(
+                            classLoader,
+                            k -> Collections.newSetFromMap(new WeakHashMap<>())
+                    ).add(type);
+                }
+            }
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    TypeCache(Function<TypeReference<?>, V> resolver) {
+        this.resolver = resolver;
+    }
+
+    /**
+     * Gets the value of the given type, computing
+     * it if absent
+     *
+     * @param type The type
+     * @return The value
+     */
+    V get(TypeReference<?> type) {
+        Map<TypeReference<?>, V> values = this.values.get(anchorOf(type));
+        V value = values.get(type);
+        if (value == null) {
+            // anonymous type references hold their
+            // enclosing instances, they're never stored
+            value = values.computeIfAbsent(type.canonicalize(), resolver);
+        }
+        return value;
+    }
+
+    /**
+     * Removes the values of the types anchored
+     * to classes of the given class loader
+     *
+     * @param classLoader The class loader
+     */
+    void invalidate(ClassLoader classLoader) {
+        Set<Class<?>> classes;
+        synchronized (anchors) {
+            classes = anchors.remove(classLoader);
+        }
+        if (classes != null) {
+            for (Class<?> type : classes) {
+                values.remove(type);
+            }
+        }
+    }
+
+    private static Class<?> anchorOf(TypeReference<?> type) {
+        Class<?> rawType = type.getRawType();
+        if (type.isPureRawType()) {
+            return rawType;
+        }
+        return anchorOf(rawType, type.getType());
+    }
+
+    private static Class<?> anchorOf(Class<?> anchor, Type type) {
+        if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            while (clazz.isArray()) {
+                clazz = clazz.getComponentType();
+            }
+            return mostSpecific(anchor, clazz);
+        } else if (type instanceof ParameterizedType) {
+            ParameterizedType parameterized = (ParameterizedType) type;
+            anchor = anchorOf(anchor, parameterized.getRawType());
+            if (parameterized.getOwnerType() != null) {
+                anchor = anchorOf(anchor, parameterized.getOwnerType());
+            }
+            for (Type argument : parameterized.getActualTypeArguments()) {
+                anchor = anchorOf(anchor, argument);
+            }
+            return anchor;
+        } else if (type instanceof GenericArrayType) {
+            return anchorOf(anchor, ((GenericArrayType) type).getGenericComponentType());
+        } else if (type instanceof WildcardType) {
+            WildcardType wildcard = (WildcardType) type;
+            for (Type bound : wildcard.getUpperBounds()) {
+                anchor = anchorOf(anchor, bound);
+            }
+            for (Type bound : wildcard.getLowerBounds()) {
+                anchor = anchorOf(anchor, bound);
+            }
+            return anchor;
+        } else if (type instanceof TypeVariable) {
+            // the bounds aren't visited, they can be recursive
+            GenericDeclaration declaration = ((TypeVariable<?>) type).getGenericDeclaration();
+            if (declaration instanceof Class) {
+                return mostSpecific(anchor, (Class<?>) declaration);
+            }
+        }
+        return anchor;
+    }
+
+    /**
+     * Returns the class whose class loader is a descendant
+     * of the class loader of the other class, or the current
+     * anchor if the class loaders aren't related
+     */
+    private static Class<?> mostSpecific(Class<?> anchor, Class<?> candidate) {
+        ClassLoader anchorLoader = anchor.getClassLoader();
+        ClassLoader candidateLoader = candidate.getClassLoader();
+        if (candidateLoader == null || candidateLoader == anchorLoader) {
+            return anchor;
+        }
+        if (anchorLoader == null) {
+            return candidate;
+        }
+        for (ClassLoader parent = candidateLoader.getParent(); parent != null; parent = parent.getParent()) {
+            if (parent == anchorLoader) {
+                return candidate;
+            }
+        }
+        return anchor;
+    }
+
+}
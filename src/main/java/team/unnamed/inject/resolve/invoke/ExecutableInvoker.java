@@ -0,0 +1,48 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject.resolve.invoke;
+
+/**
+ * Invokes a constructor or a method, the way of
+ * invoking it depends on the implementation (reflection,
+ * method handles, generated code, etc.)
+ *
+ * @see Invokers
+ */
+public interface ExecutableInvoker {
+
+    /**
+     * Invokes the executable using the given arguments
+     *
+     * @param target    The target instance, ignored by
+     *                  constructors and static methods
+     * @param arguments The invocation arguments
+     * @return The created instance for constructors, the
+     * returned value for methods (null for void methods)
+     * @throws Throwable If the invocation fails or the
+     *                   executable throws an exception
+     */
+    Object invoke(Object target, Object[] arguments) throws Throwable;
+
+}
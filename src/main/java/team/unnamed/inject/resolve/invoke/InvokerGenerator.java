@@ -0,0 +1,612 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject.resolve.invoke;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates invoker classes with straight-line bytecode that
+ * directly calls a constructor, a method, or sets a field, like
+ * hand-written code would do.
+ *
+ * <p>The generated classes are defined in the package of the
+ * member declaring class using {@link MethodHandles.Lookup},
+ * as hidden nestmate classes when running on Java 15+ (so
+ * private members can be accessed) or as normal classes when
+ * running on Java 9+ (only non-private members). Class
+ * generation isn't supported on Java 8</p>
+ *
+ * <p>The generated code has no branches, so no stack map
+ * frames are required</p>
+ */
+final class InvokerGenerator {
+
+    private static final Definer DEFINER = Definer.create();
+    private static final AtomicInteger CLASS_COUNTER = new AtomicInteger();
+    // part of the names of the generated classes
+    private static final String CLASS_NAME_MARKER = "$$InjectInvoker$";
+
+    private static final Map<Class<?>, Class<?>> WRAPPER_TYPES = new HashMap<>();
+
+    private static final String OBJECT = "java/lang/Object";
+    private static final String EXECUTABLE_INVOKER = internalName(ExecutableInvoker.class);
+    private static final String FIELD_INVOKER = internalName(FieldInvoker.class);
+    private static final String EXECUTABLE_DESCRIPTOR = "(Ljava/lang/Object;[Ljava/lang/Object;)Ljava/lang/Object;";
+    private static final String FIELD_DESCRIPTOR = "(Ljava/lang/Object;Ljava/lang/Object;)V";
+
+    // class file constants
+    private static final int ACC_PUBLIC = 0x0001;
+    private static final int ACC_FINAL = 0x0010;
+    private static final int ACC_SUPER = 0x0020;
+
+    private static final int ACONST_NULL = 0x01;
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int ALOAD_0 = 0x2a;
+    private static final int ALOAD_1 = 0x2b;
+    private static final int ALOAD_2 = 0x2c;
+    private static final int AALOAD = 0x32;
+    private static final int DUP = 0x59;
+    private static final int ARETURN = 0xb0;
+    private static final int RETURN = 0xb1;
+    private static final int PUTSTATIC = 0xb3;
+    private static final int PUTFIELD = 0xb5;
+    private static final int INVOKEVIRTUAL = 0xb6;
+    private static final int INVOKESPECIAL = 0xb7;
+    private static final int INVOKESTATIC = 0xb8;
+    private static final int NEW = 0xbb;
+    private static final int CHECKCAST = 0xc0;
+
+    static {
+        WRAPPER_TYPES.put(int.class, Integer.class);
+        WRAPPER_TYPES.put(double.class, Double.class);
+        WRAPPER_TYPES.put(float.class, Float.class);
+        WRAPPER_TYPES.put(short.class, Short.class);
+        WRAPPER_TYPES.put(long.class, Long.class);
+        WRAPPER_TYPES.put(char.class, Character.class);
+        WRAPPER_TYPES.put(byte.class, Byte.class);
+        WRAPPER_TYPES.put(boolean.class, Boolean.class);
+    }
+
+    private InvokerGenerator() {
+    }
+
+    /**
+     * Determines if the current runtime supports
+     * the definition of generated classes
+     *
+     * @return True if class generation is supported
+     */
+    static boolean isSupported() {
+        return DEFINER != null;
+    }
+
+    /**
+     * @return True if the given class was generated
+     * by this generator
+     */
+    static boolean isGenerated(Class<?> clazz) {
+        return clazz.getName().contains(CLASS_NAME_MARKER);
+    }
+
+    /**
+     * Generates an invoker for the given constructor
+     *
+     * @param constructor The constructor
+     * @return The generated invoker, null if the
+     * invoker cannot be generated
+     */
+    static ExecutableInvoker generate(Constructor<?> constructor) {
+        Class<?> declaring = constructor.getDeclaringClass();
+        if (Modifier.isAbstract(declaring.getModifiers())
+                || !canAccess(constructor, constructor.getParameterTypes())) {
+            return null;
+        }
+
+        ClassBuilder builder = new ClassBuilder(declaring, EXECUTABLE_INVOKER);
+        Code code = builder.code();
+        String owner = internalName(declaring);
+        code.op(NEW).u2(builder.pool.classRef(owner));
+        code.op(DUP);
+        pushArguments(builder, code, constructor.getParameterTypes());
+        code.op(INVOKESPECIAL).u2(builder.pool.methodRef(
+                owner, "<init>", methodDescriptor(constructor.getParameterTypes(), void.class)));
+        code.op(ARETURN);
+        builder.method("invoke", EXECUTABLE_DESCRIPTOR, code,
+                4 + 2 * constructor.getParameterCount(), 3);
+
+        return (ExecutableInvoker) builder.define();
+    }
+
+    /**
+     * Generates an invoker for the given method
+     *
+     * @param method The method
+     * @return The generated invoker, null if the
+     * invoker cannot be generated
+     */
+    static ExecutableInvoker generate(Method method) {
+        Class<?> declaring = method.getDeclaringClass();
+        if (declaring.isInterface()
+                || !canAccess(method, method.getParameterTypes())) {
+            return null;
+        }
+
+        ClassBuilder builder = new ClassBuilder(declaring, EXECUTABLE_INVOKER);
+        Code code = builder.code();
+        String owner = internalName(declaring);
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        if (!isStatic) {
+            code.op(ALOAD_1);
+            code.op(CHECKCAST).u2(builder.pool.classRef(owner));
+        }
+        pushArguments(builder, code, method.getParameterTypes());
+        code.op(isStatic ? INVOKESTATIC : INVOKEVIRTUAL).u2(builder.pool.methodRef(
+                owner, method.getName(), methodDescriptor(method.getParameterTypes(), method.getReturnType())));
+
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class) {
+            code.op(ACONST_NULL);
+        } else if (returnType.isPrimitive()) {
+            String wrapper = internalName(WRAPPER_TYPES.get(returnType));
+            code.op(INVOKESTATIC).u2(builder.pool.methodRef(
+                    wrapper, "valueOf", "(" + descriptor(returnType) + ")L" + wrapper + ";"));
+        }
+        code.op(ARETURN);
+        builder.method("invoke", EXECUTABLE_DESCRIPTOR, code,
+                6 + 2 * method.getParameterCount(), 3);
+
+        return (ExecutableInvoker) builder.define();
+    }
+
+    /**
+     * Generates an invoker for the given field
+     *
+     * @param field The field
+     * @return The generated invoker, null if the
+     * invoker cannot be generated
+     */
+    static FieldInvoker generate(Field field) {
+        // final fields can only be set using reflection
+        if (Modifier.isFinal(field.getModifiers())
+                || !canAccess(field, field.getType())) {
+            return null;
+        }
+
+        Class<?> declaring = field.getDeclaringClass();
+        ClassBuilder builder = new ClassBuilder(declaring, FIELD_INVOKER);
+        Code code = builder.code();
+        String owner = internalName(declaring);
+        boolean isStatic = Modifier.isStatic(field.getModifiers());
+        if (!isStatic) {
+            code.op(ALOAD_1);
+            code.op(CHECKCAST).u2(builder.pool.classRef(owner));
+        }
+        code.op(ALOAD_2);
+        convert(builder, code, field.getType());
+        code.op(isStatic ? PUTSTATIC : PUTFIELD).u2(builder.pool.fieldRef(
+                owner, field.getName(), descriptor(field.getType())));
+        code.op(RETURN);
+        builder.method("set", FIELD_DESCRIPTOR, code, 4, 3);
+
+        return (FieldInvoker) builder.define();
+    }
+
+    /**
+     * Pushes the elements of the arguments array (local 2)
+     * converted to the given parameter types
+     */
+    private static void pushArguments(ClassBuilder builder, Code code, Class<?>[] parameterTypes) {
+        for (int i = 0; i < parameterTypes.length; i++) {
+            code.op(ALOAD_2);
+            if (i <= 5) {
+                code.op(ICONST_0 + i);
+            } else if (i <= Byte.MAX_VALUE) {
+                code.op(BIPUSH).u1(i);
+            } else {
+                code.op(SIPUSH).u2(i);
+            }
+            code.op(AALOAD);
+            convert(builder, code, parameterTypes[i]);
+        }
+    }
+
+    /**
+     * Converts the object on top of the operand stack to
+     * the given type, unboxing it if the type is primitive
+     */
+    private static void convert(ClassBuilder builder, Code code, Class<?> type) {
+        if (type == Object.class) {
+            return;
+        }
+        if (type.isPrimitive()) {
+            String wrapper = internalName(WRAPPER_TYPES.get(type));
+            code.op(CHECKCAST).u2(builder.pool.classRef(wrapper));
+            code.op(INVOKEVIRTUAL).u2(builder.pool.methodRef(
+                    wrapper, type.getName() + "Value", "()" + descriptor(type)));
+        } else {
+            code.op(CHECKCAST).u2(builder.pool.classRef(internalName(type)));
+        }
+    }
+
+    /**
+     * Determines if the generated class (defined in the
+     * package of the member declaring class) can access
+     * the given member and the given types
+     */
+    private static boolean canAccess(Member member, Class<?>... types) {
+        if (!isSupported()) {
+            return false;
+        }
+        Class<?> host = member.getDeclaringClass();
+        // private members are only accessible by nestmates
+        if (Modifier.isPrivate(member.getModifiers()) && !DEFINER.definesNestmates()) {
+            return false;
+        }
+        for (Class<?> type : types) {
+            while (type.isArray()) {
+                type = type.getComponentType();
+            }
+            if (type.isPrimitive() || isSamePackage(type, host)) {
+                continue;
+            }
+            for (Class<?> checking = type; checking != null; checking = checking.getEnclosingClass()) {
+                if (!Modifier.isPublic(checking.getModifiers())) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSamePackage(Class<?> a, Class<?> b) {
+        return a.getClassLoader() == b.getClassLoader()
+                && packageName(a).equals(packageName(b));
+    }
+
+    private static String packageName(Class<?> clazz) {
+        String name = clazz.getName();
+        int index = name.lastIndexOf('.');
+        return index == -1 ? "" : name.substring(0, index);
+    }
+
+    private static String internalName(Class<?> clazz) {
+        if (clazz.isArray()) {
+            return descriptor(clazz);
+        }
+        return clazz.getName().replace('.', '/');
+    }
+
+    private static String descriptor(Class<?> clazz) {
+        if (clazz.isPrimitive()) {
+            if (clazz == int.class) return "I";
+            if (clazz == long.class) return "J";
+            if (clazz == double.class) return "D";
+            if (clazz == float.class) return "F";
+            if (clazz == boolean.class) return "Z";
+            if (clazz == byte.class) return "B";
+            if (clazz == char.class) return "C";
+            if (clazz == short.class) return "S";
+            return "V";
+        } else if (clazz.isArray()) {
+            return clazz.getName().replace('.', '/');
+        } else {
+            return 'L' + internalName(clazz) + ';';
+        }
+    }
+
+    private static String methodDescriptor(Class<?>[] parameterTypes, Class<?> returnType) {
+        StringBuilder builder = new StringBuilder("(");
+        for (Class<?> parameterType : parameterTypes) {
+            builder.append(descriptor(parameterType));
+        }
+        return builder.append(')').append(descriptor(returnType)).toString();
+    }
+
+    /**
+     * Builds a class that implements one invoker interface,
+     * with a public no-args constructor and one method
+     */
+    private static class ClassBuilder {
+
+        private final Class<?> host;
+        private final String name;
+        private final String interfaceName;
+        private final ConstantPool pool = new ConstantPool();
+        private final ByteArrayOutputStream methods = new ByteArrayOutputStream();
+        private int methodCount;
+
+        private ClassBuilder(Class<?> host, String interfaceName) {
+            this.host = host;
+            // the generated class must be in the same package
+            // of the host class
+            this.name = internalName(host) + CLASS_NAME_MARKER + CLASS_COUNTER.incrementAndGet();
+            this.interfaceName = interfaceName;
+
+            Code constructor = new Code();
+            constructor.op(ALOAD_0);
+            constructor.op(INVOKESPECIAL).u2(pool.methodRef(OBJECT, "<init>", "()V"));
+            constructor.op(RETURN);
+            method("<init>", "()V", constructor, 1, 1);
+        }
+
+        private Code code() {
+            return new Code();
+        }
+
+        private void method(String name, String descriptor, Code code, int maxStack, int maxLocals) {
+            DataOutputStream output = new DataOutputStream(methods);
+            byte[] bytecode = code.toByteArray();
+            try {
+                output.writeShort(ACC_PUBLIC);
+                output.writeShort(pool.utf8(name));
+                output.writeShort(pool.utf8(descriptor));
+                output.writeShort(1); // attributes count
+                output.writeShort(pool.utf8("Code"));
+                output.writeInt(12 + bytecode.length);
+                output.writeShort(maxStack);
+                output.writeShort(maxLocals);
+                output.writeInt(bytecode.length);
+                output.write(bytecode);
+                output.writeShort(0); // exception table length
+                output.writeShort(0); // attributes count
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            methodCount++;
+        }
+
+        private byte[] toByteArray() throws IOException {
+            int thisClass = pool.classRef(name);
+            int superClass = pool.classRef(OBJECT);
+            int interfaceClass = pool.classRef(interfaceName);
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+            output.writeInt(0xCAFEBABE);
+            output.writeShort(0); // minor version
+            // Java 11 class file, nestmates are
+            // supported since this version
+            output.writeShort(DEFINER.definesNestmates() ? 55 : 52);
+            pool.writeTo(output);
+            output.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+            output.writeShort(thisClass);
+            output.writeShort(superClass);
+            output.writeShort(1); // interfaces count
+            output.writeShort(interfaceClass);
+            output.writeShort(0); // fields count
+            output.writeShort(methodCount);
+            methods.writeTo(output);
+            output.writeShort(0); // attributes count
+            return bytes.toByteArray();
+        }
+
+        private Object define() {
+            try {
+                return DEFINER.define(host, toByteArray());
+            } catch (Throwable e) {
+                // the class cannot be defined (the invoker interface
+                // may not be visible from the host class loader, the
+                // package may not be open, etc.)
+                return null;
+            }
+        }
+
+    }
+
+    /**
+     * Minimal bytecode buffer
+     */
+    private static class Code {
+
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        private Code op(int opcode) {
+            bytes.write(opcode);
+            return this;
+        }
+
+        private Code u1(int value) {
+            bytes.write(value);
+            return this;
+        }
+
+        private Code u2(int value) {
+            bytes.write(value >>> 8);
+            bytes.write(value);
+            return this;
+        }
+
+        private byte[] toByteArray() {
+            return bytes.toByteArray();
+        }
+
+    }
+
+    /**
+     * Minimal class file constant pool, only supports the
+     * entries used by the generated invokers
+     */
+    private static class ConstantPool {
+
+        private static final int UTF8 = 1;
+        private static final int CLASS = 7;
+        private static final int FIELD_REF = 9;
+        private static final int METHOD_REF = 10;
+        private static final int NAME_AND_TYPE = 12;
+
+        private final Map<String, Integer> indexes = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream output = new DataOutputStream(bytes);
+        private int count = 1;
+
+        private int utf8(String value) {
+            Integer index = indexes.get("utf8:" + value);
+            if (index != null) {
+                return index;
+            }
+            try {
+                output.writeByte(UTF8);
+                output.writeUTF(value);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            indexes.put("utf8:" + value, count);
+            return count++;
+        }
+
+        private int classRef(String internalName) {
+            return entry(CLASS, "class:" + internalName, utf8(internalName), -1);
+        }
+
+        private int methodRef(String owner, String name, String descriptor) {
+            return entry(METHOD_REF, "method:" + owner + '.' + name + descriptor,
+                    classRef(owner), nameAndType(name, descriptor));
+        }
+
+        private int fieldRef(String owner, String name, String descriptor) {
+            return entry(FIELD_REF, "field:" + owner + '.' + name + ':' + descriptor,
+                    classRef(owner), nameAndType(name, descriptor));
+        }
+
+        private int nameAndType(String name, String descriptor) {
+            return entry(NAME_AND_TYPE, "nat:" + name + ':' + descriptor,
+                    utf8(name), utf8(descriptor));
+        }
+
+        private int entry(int tag, String id, int first, int second) {
+            Integer index = indexes.get(id);
+            if (index != null) {
+                return index;
+            }
+            try {
+                output.writeByte(tag);
+                output.writeShort(first);
+                if (second != -1) {
+                    output.writeShort(second);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            indexes.put(id, count);
+            return count++;
+        }
+
+        private void writeTo(DataOutputStream classOutput) throws IOException {
+            classOutput.writeShort(count);
+            bytes.writeTo(classOutput);
+        }
+
+    }
+
+    /**
+     * Defines classes in the package of a host class using the
+     * {@link MethodHandles.Lookup} API, it's created reflectively
+     * since this API isn't available on Java 8
+     */
+    private static class Definer {
+
+        private final Method privateLookupIn;
+        private final Method defineClass;
+        private final Method defineHiddenClass;
+        private final Object nestmateOptions;
+
+        private Definer(
+                Method privateLookupIn,
+                Method defineClass,
+                Method defineHiddenClass,
+                Object nestmateOptions
+        ) {
+            this.privateLookupIn = privateLookupIn;
+            this.defineClass = defineClass;
+            this.defineHiddenClass = defineHiddenClass;
+            this.nestmateOptions = nestmateOptions;
+        }
+
+        private static Definer create() {
+            Method privateLookupIn;
+            Method defineClass;
+            try {
+                privateLookupIn = MethodHandles.class.getMethod(
+                        "privateLookupIn", Class.class, MethodHandles.Lookup.class);
+                defineClass = MethodHandles.Lookup.class.getMethod("defineClass", byte[].class);
+            } catch (NoSuchMethodException e) {
+                // Java 8, classes cannot be defined
+                return null;
+            }
+
+            Method defineHiddenClass = null;
+            Object nestmateOptions = null;
+            try {
+                @SuppressWarnings({"rawtypes", "unchecked"})
+                Class<? extends Enum> optionType = (Class<? extends Enum>)
+                        Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+                Object options = Array.newInstance(optionType, 1);
+                @SuppressWarnings("unchecked")
+                Object nestmate = Enum.valueOf(optionType, "NESTMATE");
+                Array.set(options, 0, nestmate);
+                defineHiddenClass = MethodHandles.Lookup.class.getMethod(
+                        "defineHiddenClass", byte[].class, boolean.class, options.getClass());
+                nestmateOptions = options;
+            } catch (ClassNotFoundException | NoSuchMethodException ignored) {
+                // Java 9-14, hidden classes aren't supported
+            }
+
+            return new Definer(privateLookupIn, defineClass, defineHiddenClass, nestmateOptions);
+        }
+
+        private boolean definesNestmates() {
+            return defineHiddenClass != null;
+        }
+
+        private Object define(Class<?> host, byte[] bytes) throws Throwable {
+            MethodHandles.Lookup lookup = (MethodHandles.Lookup)
+                    privateLookupIn.invoke(null, host, MethodHandles.lookup());
+            Class<?> defined;
+            if (defineHiddenClass != null) {
+                lookup = (MethodHandles.Lookup) defineHiddenClass.invoke(lookup, bytes, true, nestmateOptions);
+                defined = lookup.lookupClass();
+            } else {
+                defined = (Class<?>) defineClass.invoke(lookup, (Object) bytes);
+            }
+            return lookup.findConstructor(defined, MethodType.methodType(void.class)).invoke();
+        }
+
+    }
+
+}
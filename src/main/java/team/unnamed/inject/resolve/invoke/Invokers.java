@@ -0,0 +1,261 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject.resolve.invoke;
+
+import team.unnamed.inject.util.Validate;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Collection of static factory methods to create
+ * invokers for constructors, methods and fields.
+ *
+ * <p>The invokers are backed by {@link MethodHandle}s
+ * adapted to a generic signature, so the JIT compiler
+ * can inline the invocations. If a method handle cannot
+ * be created for a member, the invoker falls back to
+ * plain reflection, the exceptions thrown by the member
+ * are unwrapped, so both invokers throw the same cause</p>
+ *
+ * <p>Optionally, invokers with generated bytecode can be
+ * used for frequently provisioned types, once a type has
+ * been provisioned {@link #getGenerationThreshold()} times,
+ * see {@link #setGenerationThreshold(int)}</p>
+ */
+public final class Invokers {
+
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    // (Object target, Object[] arguments) -> Object
+    private static final MethodType EXECUTABLE_TYPE =
+            MethodType.methodType(Object.class, Object.class, Object[].class);
+    // (Object target, Object value) -> void
+    private static final MethodType FIELD_TYPE =
+            MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static volatile int generationThreshold = 0;
+
+    private Invokers() {
+    }
+
+    /**
+     * Determines if invokers with generated bytecode are
+     * supported by the current runtime. Generation requires
+     * Java 9+, and Java 15+ for private members
+     *
+     * @return True if generation is supported
+     */
+    public static boolean isGenerationSupported() {
+        return InvokerGenerator.isSupported();
+    }
+
+    /**
+     * @return The number of provisions of a type after
+     * which its members are invoked through generated
+     * bytecode, zero if generation is disabled
+     */
+    public static int getGenerationThreshold() {
+        return generationThreshold;
+    }
+
+    /**
+     * Sets the number of provisions of a type after which
+     * its members will be invoked through generated bytecode
+     * instead of method handles, should be set before creating
+     * any injector. Generation is disabled by default
+     *
+     * @param threshold The provisions threshold, zero
+     *                  to disable invoker generation
+     */
+    public static void setGenerationThreshold(int threshold) {
+        Validate.argument(threshold >= 0, "Threshold must be positive or zero");
+        generationThreshold = threshold;
+    }
+
+    /**
+     * Creates an invoker for the given constructor, the
+     * constructor must be already accessible
+     *
+     * @param constructor The constructor
+     * @return The constructor invoker
+     */
+    public static ExecutableInvoker of(Constructor<?> constructor) {
+        Validate.notNull(constructor, "constructor");
+        try {
+            MethodHandle handle = LOOKUP.unreflectConstructor(constructor);
+            handle = handle.asFixedArity()
+                    .asSpreader(Object[].class, constructor.getParameterCount());
+            // the target is ignored by constructors
+            handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            return new HandleExecutableInvoker(handle.asType(EXECUTABLE_TYPE));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return (target, arguments) -> {
+                try {
+                    return constructor.newInstance(arguments);
+                } catch (InvocationTargetException thrown) {
+                    throw thrown.getCause();
+                }
+            };
+        }
+    }
+
+    /**
+     * Creates an invoker for the given method, the
+     * method must be already accessible
+     *
+     * @param method The method
+     * @return The method invoker
+     */
+    public static ExecutableInvoker of(Method method) {
+        Validate.notNull(method, "method");
+        try {
+            MethodHandle handle = LOOKUP.unreflect(method).asFixedArity();
+            if (Modifier.isStatic(method.getModifiers())) {
+                handle = handle.asSpreader(Object[].class, method.getParameterCount());
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            } else {
+                // the first argument is the target instance
+                handle = handle.asSpreader(Object[].class, method.getParameterCount());
+            }
+            return new HandleExecutableInvoker(handle.asType(EXECUTABLE_TYPE));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return (target, arguments) -> {
+                try {
+                    return method.invoke(target, arguments);
+                } catch (InvocationTargetException thrown) {
+                    throw thrown.getCause();
+                }
+            };
+        }
+    }
+
+    /**
+     * Creates an invoker for the given field, the
+     * field must be already accessible
+     *
+     * @param field The field
+     * @return The field invoker
+     */
+    public static FieldInvoker of(Field field) {
+        Validate.notNull(field, "field");
+        try {
+            MethodHandle handle = LOOKUP.unreflectSetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            return new HandleFieldInvoker(handle.asType(FIELD_TYPE));
+        } catch (IllegalAccessException | RuntimeException e) {
+            // final fields cannot be set using method handles
+            return field::set;
+        }
+    }
+
+    /**
+     * Generates an invoker for the given constructor
+     *
+     * @param constructor The constructor
+     * @return The generated invoker, or null if the
+     * runtime doesn't support generation or the
+     * constructor cannot be accessed by generated code
+     */
+    public static ExecutableInvoker generate(Constructor<?> constructor) {
+        Validate.notNull(constructor, "constructor");
+        return InvokerGenerator.generate(constructor);
+    }
+
+    /**
+     * Generates an invoker for the given method
+     *
+     * @param method The method
+     * @return The generated invoker, or null if the
+     * runtime doesn't support generation or the
+     * method cannot be accessed by generated code
+     */
+    public static ExecutableInvoker generate(Method method) {
+        Validate.notNull(method, "method");
+        return InvokerGenerator.generate(method);
+    }
+
+    /**
+     * Generates an invoker for the given field
+     *
+     * @param field The field
+     * @return The generated invoker, or null if the
+     * runtime doesn't support generation or the field
+     * cannot be set by generated code (i.e. final fields)
+     */
+    public static FieldInvoker generate(Field field) {
+        Validate.notNull(field, "field");
+        return InvokerGenerator.generate(field);
+    }
+
+    /**
+     * Determines if the given invoker was generated by
+     * one of the {@code generate} methods
+     *
+     * @param invoker The invoker, can be null
+     * @return True if the invoker was generated
+     */
+    public static boolean isGenerated(Object invoker) {
+        return invoker != null && InvokerGenerator.isGenerated(invoker.getClass());
+    }
+
+    private static class HandleExecutableInvoker implements ExecutableInvoker {
+
+        private final MethodHandle handle;
+
+        private HandleExecutableInvoker(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public Object invoke(Object target, Object[] arguments) throws Throwable {
+            return (Object) handle.invokeExact(target, arguments);
+        }
+
+    }
+
+    private static class HandleFieldInvoker implements FieldInvoker {
+
+        private final MethodHandle handle;
+
+        private HandleFieldInvoker(MethodHandle handle) {
+            this.handle = handle;
+        }
+
+        @Override
+        public void set(Object target, Object value) throws Throwable {
+            handle.invokeExact(target, value);
+        }
+
+    }
+
+}
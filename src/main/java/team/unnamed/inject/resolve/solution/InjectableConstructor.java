@@ -27,11 +27,12 @@ import team.unnamed.inject.impl.InjectorImpl;
 import team.unnamed.inject.impl.ProvisionStack;
 import team.unnamed.inject.key.InjectedKey;
 import team.unnamed.inject.key.TypeReference;
+import team.unnamed.inject.resolve.invoke.ExecutableInvoker;
+import team.unnamed.inject.resolve.invoke.Invokers;
 import team.unnamed.inject.util.ElementFormatter;
 import team.unnamed.inject.util.Validate;
 
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.Collections;
 import java.util.List;
 
@@ -45,7 +46,12 @@ public class InjectableConstructor implements InjectableMember {
     private final List<InjectedKey<?>> keys;
 
     private final TypeReference<?> declaringType;
-    private final Constructor<?> constructor;
+    private final Class<?>[] parameterTypes;
+    private Constructor<?> constructor;
+    // replaced by the generated invoker when compiled,
+    // volatile so the new invoker is safely published
+    private volatile ExecutableInvoker invoker;
+    private boolean compiled;
 
     public InjectableConstructor(
             List<InjectedKey<?>> keys,
@@ -53,6 +59,7 @@ public class InjectableConstructor implements InjectableMember {
     ) {
         this.keys = Collections.unmodifiableList(keys);
         this.constructor = constructor;
+        this.parameterTypes = null;
 
         for (InjectedKey<?> key : keys) {
             Validate.doesntRequiresContext(key.getKey());
@@ -60,8 +67,38 @@ public class InjectableConstructor implements InjectableMember {
         if (constructor != null) {
             this.constructor.setAccessible(true);
             this.declaringType = TypeReference.of(constructor.getDeclaringClass());
+            this.invoker = Invokers.of(constructor);
         } else {
             this.declaringType = null;
+            this.invoker = null;
+        }
+    }
+
+    /**
+     * Creates an injectable constructor from code generated at
+     * compile time, the reflective constructor is only looked up
+     * if it's required (i.e. for error messages)
+     *
+     * @param keys           The constructor parameter keys
+     * @param declaringClass The constructor declaring class
+     * @param parameterTypes The constructor parameter types
+     * @param invoker        The generated constructor invoker
+     */
+    public InjectableConstructor(
+            List<InjectedKey<?>> keys,
+            Class<?> declaringClass,
+            Class<?>[] parameterTypes,
+            ExecutableInvoker invoker
+    ) {
+        this.keys = Collections.unmodifiableList(keys);
+        this.declaringType = TypeReference.of(Validate.notNull(declaringClass, "declaringClass"));
+        this.parameterTypes = Validate.notNull(parameterTypes, "parameterTypes");
+        this.invoker = Validate.notNull(invoker, "invoker");
+        // generated code is already direct
+        this.compiled = true;
+
+        for (InjectedKey<?> key : keys) {
+            Validate.doesntRequiresContext(key.getKey());
         }
     }
 
@@ -72,13 +109,50 @@ public class InjectableConstructor implements InjectableMember {
 
     @Override
     public Constructor<?> getMember() {
+        if (constructor == null && parameterTypes != null) {
+            try {
+                constructor = declaringType.getRawType().getDeclaredConstructor(parameterTypes);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("Generated constructor not found", e);
+            }
+        }
         return constructor;
     }
 
+    @Override
     public List<InjectedKey<?>> getKeys() {
         return keys;
     }
 
+    /**
+     * Invokes the constructor using the given
+     * arguments, without resolving any key
+     *
+     * @param arguments The constructor arguments
+     * @return The created instance
+     * @throws Throwable If the constructor throws an exception
+     */
+    public Object newInstance(Object[] arguments) throws Throwable {
+        return invoker.invoke(null, arguments);
+    }
+
+    @Override
+    public synchronized void compile() {
+        if (compiled || constructor == null) {
+            return;
+        }
+        compiled = true;
+        ExecutableInvoker generated = Invokers.generate(constructor);
+        if (generated != null) {
+            this.invoker = generated;
+        }
+    }
+
+    @Override
+    public boolean isGenerated() {
+        return Invokers.isGenerated(invoker);
+    }
+
     @Override
     public Object inject(InjectorImpl injector, ProvisionStack stack, Object target) {
 
@@ -91,7 +165,7 @@ public class InjectableConstructor implements InjectableMember {
             if (value == InjectorImpl.ABSENT_INSTANCE) {
                 stack.attach(
                         "Cannot instantiate class"
-                                + "\n\tClass: " + constructor.getName()
+                                + "\n\tClass: " + declaringType.getRawType().getName()
                                 + "\n\tReason: Cannot get value for required parameter (index " + i + ")"
                                 + " \n\tRequired Key: " + key.getKey()
                 );
@@ -102,15 +176,15 @@ public class InjectableConstructor implements InjectableMember {
         }
 
         try {
-            return constructor.newInstance(values);
-        } catch (
-                InstantiationException
-                        | IllegalAccessException
-                        | InvocationTargetException e
-        ) {
+            return invoker.invoke(null, values);
+        } catch (Error e) {
+            // errors (i.e. OutOfMemoryError) aren't provision
+            // errors, the provision can't continue
+            throw e;
+        } catch (Throwable e) {
             stack.attach(
                     "Errors while constructing "
-                            + ElementFormatter.formatConstructor(constructor, keys),
+                            + ElementFormatter.formatConstructor(getMember(), keys),
                     e
             );
         }
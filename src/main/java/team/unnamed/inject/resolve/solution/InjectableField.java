@@ -27,11 +27,15 @@ import team.unnamed.inject.impl.InjectorImpl;
 import team.unnamed.inject.impl.ProvisionStack;
 import team.unnamed.inject.key.InjectedKey;
 import team.unnamed.inject.key.TypeReference;
+import team.unnamed.inject.resolve.invoke.FieldInvoker;
+import team.unnamed.inject.resolve.invoke.Invokers;
 import team.unnamed.inject.util.ElementFormatter;
 import team.unnamed.inject.util.Validate;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -43,7 +47,13 @@ public class InjectableField implements InjectableMember {
 
     private final TypeReference<?> declaringType;
     private final InjectedKey<?> key;
-    private final Field field;
+    private final String name;
+    private final boolean isStatic;
+    private Field field;
+    // replaced by the generated invoker when compiled,
+    // volatile so the new invoker is safely published
+    private volatile FieldInvoker invoker;
+    private boolean compiled;
 
     public InjectableField(
             TypeReference<?> declaringType,
@@ -53,9 +63,41 @@ public class InjectableField implements InjectableMember {
         this.declaringType = Validate.notNull(declaringType, "declaringType");
         this.key = Validate.notNull(key, "key");
         this.field = Validate.notNull(field, "field");
+        this.name = field.getName();
+        this.isStatic = Modifier.isStatic(field.getModifiers());
 
         Validate.doesntRequiresContext(key.getKey());
         this.field.setAccessible(true); // bro...
+        this.invoker = Invokers.of(field);
+    }
+
+    /**
+     * Creates an injectable field from code generated at compile
+     * time, the reflective field is only looked up if it's required
+     * (i.e. for error messages)
+     *
+     * @param declaringType The field declaring type
+     * @param key           The field key
+     * @param name          The field name
+     * @param isStatic      True if the field is static
+     * @param invoker       The generated field setter
+     */
+    public InjectableField(
+            TypeReference<?> declaringType,
+            InjectedKey<?> key,
+            String name,
+            boolean isStatic,
+            FieldInvoker invoker
+    ) {
+        this.declaringType = Validate.notNull(declaringType, "declaringType");
+        this.key = Validate.notNull(key, "key");
+        this.name = Validate.notNull(name, "name");
+        this.isStatic = isStatic;
+        this.invoker = Validate.notNull(invoker, "invoker");
+        // generated code is already direct
+        this.compiled = true;
+
+        Validate.doesntRequiresContext(key.getKey());
     }
 
     @Override
@@ -65,13 +107,57 @@ public class InjectableField implements InjectableMember {
 
     @Override
     public Field getMember() {
+        if (field == null) {
+            for (
+                    Class<?> checking = declaringType.getRawType();
+                    checking != null && field == null;
+                    checking = checking.getSuperclass()
+            ) {
+                try {
+                    field = checking.getDeclaredField(name);
+                } catch (NoSuchFieldException ignored) {
+                }
+            }
+            Validate.state(field != null, "Generated field '%s' not found", name);
+        }
         return field;
     }
 
+    public InjectedKey<?> getKey() {
+        return key;
+    }
+
+    @Override
+    public List<InjectedKey<?>> getKeys() {
+        return Collections.singletonList(key);
+    }
+
+    @Override
+    public boolean isStatic() {
+        return isStatic;
+    }
+
+    @Override
+    public synchronized void compile() {
+        if (compiled) {
+            return;
+        }
+        compiled = true;
+        FieldInvoker generated = Invokers.generate(field);
+        if (generated != null) {
+            this.invoker = generated;
+        }
+    }
+
+    @Override
+    public boolean isGenerated() {
+        return Invokers.isGenerated(invoker);
+    }
+
     @Override
     public Object inject(InjectorImpl injector, ProvisionStack stack, Object target) {
 
-        if (target == null ^ Modifier.isStatic(field.getModifiers())) {
+        if (target == null ^ isStatic) {
             return null;
         }
 
@@ -79,7 +165,7 @@ public class InjectableField implements InjectableMember {
 
         if (value == InjectorImpl.ABSENT_INSTANCE) {
             stack.attach(
-                    "Cannot inject '" + field.getName() + "' field."
+                    "Cannot inject '" + name + "' field."
                             + "\n\tAt:" + declaringType
                             + "\n\tReason: Cannot get value for required key"
                             + " \n\tRequired Key: " + key.getKey()
@@ -88,11 +174,13 @@ public class InjectableField implements InjectableMember {
         }
 
         try {
-            field.set(target, value);
-        } catch (IllegalAccessException e) {
+            invoker.set(target, value);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
             stack.attach(
                     "Cannot inject field "
-                            + ElementFormatter.formatField(field, key),
+                            + ElementFormatter.formatField(getMember(), key),
                     e
             );
         }
@@ -107,12 +195,12 @@ public class InjectableField implements InjectableMember {
         InjectableField that = (InjectableField) o;
         return declaringType.equals(that.declaringType) &&
                 key.equals(that.key) &&
-                field.equals(that.field);
+                getMember().equals(that.getMember());
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(declaringType, key, field);
+        return Objects.hash(declaringType, key, getMember());
     }
 
 }
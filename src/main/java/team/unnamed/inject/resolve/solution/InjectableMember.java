@@ -25,9 +25,11 @@ package team.unnamed.inject.resolve.solution;
 
 import team.unnamed.inject.impl.InjectorImpl;
 import team.unnamed.inject.impl.ProvisionStack;
+import team.unnamed.inject.key.InjectedKey;
 import team.unnamed.inject.key.TypeReference;
 
 import java.lang.reflect.Member;
+import java.util.List;
 
 /**
  * Represents an injectable member like a field,
@@ -50,6 +52,19 @@ public interface InjectableMember {
      */
     Member getMember();
 
+    /**
+     * @return The keys required to inject this member
+     */
+    List<InjectedKey<?>> getKeys();
+
+    /**
+     * @return True if this member is static, static members
+     * are only injected when using static injection
+     */
+    default boolean isStatic() {
+        return false;
+    }
+
     /**
      * Gets and injects the required keys in the
      * specified {@code target}
@@ -61,4 +76,21 @@ public interface InjectableMember {
      */
     Object inject(InjectorImpl injector, ProvisionStack stack, Object target);
 
+    /**
+     * Replaces the invoker of this member by an invoker
+     * with generated bytecode, if possible. Called when
+     * the declaring type is frequently provisioned, see
+     * {@link team.unnamed.inject.resolve.invoke.Invokers#setGenerationThreshold}
+     */
+    default void compile() {
+    }
+
+    /**
+     * @return True if this member is invoked by an invoker
+     * generated by {@link #compile()}
+     */
+    default boolean isGenerated() {
+        return false;
+    }
+
 }
@@ -28,10 +28,11 @@ import team.unnamed.inject.impl.InjectorImpl;
 import team.unnamed.inject.impl.ProvisionStack;
 import team.unnamed.inject.key.InjectedKey;
 import team.unnamed.inject.key.TypeReference;
+import team.unnamed.inject.resolve.invoke.ExecutableInvoker;
+import team.unnamed.inject.resolve.invoke.Invokers;
 import team.unnamed.inject.util.ElementFormatter;
 import team.unnamed.inject.util.Validate;
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
 import java.util.Collections;
@@ -46,7 +47,14 @@ public class InjectableMethod implements InjectableMember {
 
     private final TypeReference<?> declaringType;
     private final List<InjectedKey<?>> keys;
-    private final Method method;
+    private final String name;
+    private final Class<?>[] parameterTypes;
+    private final boolean isStatic;
+    private Method method;
+    // replaced by the generated invoker when compiled,
+    // volatile so the new invoker is safely published
+    private volatile ExecutableInvoker invoker;
+    private boolean compiled;
 
     public InjectableMethod(
             TypeReference<?> declaringType,
@@ -56,11 +64,49 @@ public class InjectableMethod implements InjectableMember {
         this.declaringType = Validate.notNull(declaringType);
         this.keys = Collections.unmodifiableList(keys);
         this.method = Validate.notNull(method);
+        this.name = method.getName();
+        this.parameterTypes = method.getParameterTypes();
+        this.isStatic = Modifier.isStatic(method.getModifiers());
 
         for (InjectedKey<?> key : keys) {
             Validate.doesntRequiresContext(key.getKey());
         }
         this.method.setAccessible(true);
+        this.invoker = Invokers.of(method);
+    }
+
+    /**
+     * Creates an injectable method from code generated at compile
+     * time, the reflective method is only looked up if it's required
+     * (i.e. for error messages)
+     *
+     * @param declaringType  The method declaring type
+     * @param keys           The method parameter keys
+     * @param name           The method name
+     * @param parameterTypes The method parameter types
+     * @param isStatic       True if the method is static
+     * @param invoker        The generated method invoker
+     */
+    public InjectableMethod(
+            TypeReference<?> declaringType,
+            List<InjectedKey<?>> keys,
+            String name,
+            Class<?>[] parameterTypes,
+            boolean isStatic,
+            ExecutableInvoker invoker
+    ) {
+        this.declaringType = Validate.notNull(declaringType, "declaringType");
+        this.keys = Collections.unmodifiableList(keys);
+        this.name = Validate.notNull(name, "name");
+        this.parameterTypes = Validate.notNull(parameterTypes, "parameterTypes");
+        this.isStatic = isStatic;
+        this.invoker = Validate.notNull(invoker, "invoker");
+        // generated code is already direct
+        this.compiled = true;
+
+        for (InjectedKey<?> key : keys) {
+            Validate.doesntRequiresContext(key.getKey());
+        }
     }
 
     @Override
@@ -70,13 +116,53 @@ public class InjectableMethod implements InjectableMember {
 
     @Override
     public Method getMember() {
+        if (method == null) {
+            for (
+                    Class<?> checking = declaringType.getRawType();
+                    checking != null && method == null;
+                    checking = checking.getSuperclass()
+            ) {
+                try {
+                    method = checking.getDeclaredMethod(name, parameterTypes);
+                } catch (NoSuchMethodException ignored) {
+                }
+            }
+            Validate.state(method != null, "Generated method '%s' not found", name);
+        }
         return method;
     }
 
+    @Override
+    public List<InjectedKey<?>> getKeys() {
+        return keys;
+    }
+
+    @Override
+    public boolean isStatic() {
+        return isStatic;
+    }
+
+    @Override
+    public synchronized void compile() {
+        if (compiled) {
+            return;
+        }
+        compiled = true;
+        ExecutableInvoker generated = Invokers.generate(method);
+        if (generated != null) {
+            this.invoker = generated;
+        }
+    }
+
+    @Override
+    public boolean isGenerated() {
+        return Invokers.isGenerated(invoker);
+    }
+
     @Override
     public Object inject(InjectorImpl injector, ProvisionStack stack, Object target) {
 
-        if (target == null ^ Modifier.isStatic(method.getModifiers())) {
+        if (target == null ^ isStatic) {
             return null;
         }
 
@@ -88,7 +174,7 @@ public class InjectableMethod implements InjectableMember {
 
             if (value == InjectorImpl.ABSENT_INSTANCE) {
                 stack.attach(
-                        "Cannot inject '" + method.getName() + "' method."
+                        "Cannot inject '" + name + "' method."
                                 + "\n\tAt:" + declaringType
                                 + "\n\tReason: Cannot get value for required parameter (index " + i + ")"
                                 + " \n\tRequired Key: " + key.getKey()
@@ -100,11 +186,13 @@ public class InjectableMethod implements InjectableMember {
         }
 
         try {
-            return method.invoke(target, values);
-        } catch (IllegalAccessException | InvocationTargetException e) {
+            return invoker.invoke(target, values);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
             stack.attach(
                     "Cannot inject method "
-                            + ElementFormatter.formatMethod(method, keys),
+                            + ElementFormatter.formatMethod(getMember(), keys),
                     e
             );
             return null;
@@ -24,10 +24,21 @@
 package team.unnamed.inject.scope;
 
 import team.unnamed.inject.Provider;
+import team.unnamed.inject.error.InjectionException;
+import team.unnamed.inject.key.Key;
 import team.unnamed.inject.provision.StdProvider;
 
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * A lazy singleton provider wrapper
@@ -35,20 +46,63 @@ import java.util.concurrent.locks.ReentrantLock;
 public final class LazySingletonScope
         implements Scope {
 
+    // the innermost singleton being instantiated by
+    // each thread, only set while instantiating
+    private static final ThreadLocal<Initialization> INITIALIZING =
+            new ThreadLocal<>();
+
+    // the threads waiting for a singleton instantiated
+    // by other thread, it's the "waits-for" graph used
+    // to detect deadlocks between threads
+    private static final Map<Thread, Wait> WAITING =
+            new ConcurrentHashMap<>();
+
+    // the times a thread waited for other thread
+    // to initialize a singleton, and the total
+    // time spent waiting, in nanoseconds
+    private final LongAdder initializationWaits = new LongAdder();
+    private final LongAdder initializationWaitNanos = new LongAdder();
+
     @Override
     public <T> Provider<T> scope(Provider<T> unscoped) {
         // the provider is already scoped
         if (unscoped instanceof LazySingletonProvider) {
             return unscoped;
         } else {
-            return new LazySingletonProvider<>(unscoped);
+            return new LazySingletonProvider<>(this, unscoped);
         }
     }
 
     /**
-     * Singleton provider. Singleton instance is instantiated
-     * using double-checked-locking with ReentrantLock.
-     * We use a volatile reference for more thread-safety
+     * Returns the number of times a thread requested a
+     * singleton of this scope while other thread was
+     * instantiating it, and had to wait
+     *
+     * @return The count of initialization waits
+     */
+    public long getInitializationWaits() {
+        return initializationWaits.sum();
+    }
+
+    /**
+     * Returns the total time spent by threads waiting
+     * for other threads to instantiate the singletons
+     * of this scope
+     *
+     * @return The waiting time, in nanoseconds
+     */
+    public long getInitializationWaitNanos() {
+        return initializationWaitNanos.sum();
+    }
+
+    /**
+     * Singleton provider. The singleton instance is stored in a
+     * slot of a {@link SingletonTable}. The thread that instantiates
+     * the singleton puts an {@link Initialization} token in the slot
+     * (using compare-and-set), the other threads requesting the
+     * singleton are parked until the token is replaced by the
+     * instance. Once published, reading the singleton doesn't
+     * require any lock and no initialization state is left.
      *
      * <p>The singleton provider wrapper executes the delegated
      * provider once, then, returns the same saved instance.</p>
@@ -62,45 +116,298 @@ public final class LazySingletonScope
     static class LazySingletonProvider<T>
             implements Provider<T> {
 
-        private final Lock instanceLock = new ReentrantLock();
+        private final LazySingletonScope scope;
         private final Provider<T> delegate;
         /**
-         * Volatile reference to saved instance. Initially null,
-         * we double-check if the instance is null
+         * The array containing the slot of this singleton,
+         * null until a slot is allocated, the slot index
+         * and the key are written before and never change
+         * after
          */
-        private volatile T instance;
+        private volatile AtomicReferenceArray<Object> values;
+        private int slot;
+        private Key<?> key;
 
         /**
          * Constructs a new Singleton Provider wrapper
          *
+         * @param scope    The scope that created the provider
          * @param unscoped The unscoped provider
          */
-        LazySingletonProvider(Provider<T> unscoped) {
+        LazySingletonProvider(LazySingletonScope scope, Provider<T> unscoped) {
+            this.scope = scope;
             this.delegate = unscoped;
         }
 
+        /**
+         * Sets the slot of this singleton, if it doesn't
+         * have one yet
+         *
+         * @param key The bound key, null if unknown
+         * @return True if the slot was set
+         */
+        synchronized boolean allocate(AtomicReferenceArray<Object> values, int slot, Key<?> key) {
+            if (this.values != null) {
+                return false;
+            }
+            this.slot = slot;
+            this.key = key;
+            this.values = values;
+            return true;
+        }
+
         @Override
         public T get() {
-            // non-synchronized check
-            if (instance == null) {
-                instanceLock.lock();
-                try {
-                    if (instance == null) { // synchronized check
-                        instance = delegate.get();
+            AtomicReferenceArray<Object> values = this.values;
+            if (values == null) {
+                // not allocated by a table, use an own slot
+                allocate(new AtomicReferenceArray<>(1), 0, null);
+                values = this.values;
+            }
+            Object value = values.get(slot);
+            if (value != null && !(value instanceof Initialization)) {
+                @SuppressWarnings("unchecked")
+                T instance = (T) value;
+                return instance;
+            }
+            return initialize(values, slot);
+        }
+
+        private T initialize(AtomicReferenceArray<Object> values, int slot) {
+            Initialization token = null;
+            while (true) {
+                Object value = values.get(slot);
+                if (value == null) {
+                    if (token == null) {
+                        token = new Initialization(this, Thread.currentThread(), INITIALIZING.get());
+                    }
+                    if (values.compareAndSet(slot, null, token)) {
+                        return instantiate(values, slot, token);
+                    }
+                } else if (value instanceof Initialization) {
+                    Initialization initialization = (Initialization) value;
+                    if (initialization.owner == Thread.currentThread()) {
+                        // re-entrant request while instantiating,
+                        // delegated, as a re-entrant lock would do
+                        return delegate.get();
                     }
-                } finally { // important to release the lock in a finally block
-                    instanceLock.unlock();
+                    awaitInitialization(values, slot, initialization);
+                } else {
+                    @SuppressWarnings("unchecked")
+                    T instance = (T) value;
+                    return instance;
                 }
             }
+        }
 
+        private T instantiate(AtomicReferenceArray<Object> values, int slot, Initialization token) {
+            T instance;
+            INITIALIZING.set(token);
+            try {
+                instance = delegate.get();
+            } catch (RuntimeException | Error e) {
+                // the next request tries again
+                values.set(slot, null);
+                token.release();
+                throw e;
+            } finally {
+                if (token.parent == null) {
+                    INITIALIZING.remove();
+                } else {
+                    INITIALIZING.set(token.parent);
+                }
+            }
+            // a null instance isn't saved, like before
+            values.set(slot, instance);
+            token.release();
             return instance;
         }
 
+        private void awaitInitialization(
+                AtomicReferenceArray<Object> values,
+                int slot,
+                Initialization initialization
+        ) {
+            long start = System.nanoTime();
+            Thread thread = Thread.currentThread();
+            initialization.waiters.add(thread);
+            // registered before parking, if the other threads
+            // (transitively) wait for this thread, they will
+            // never release the singleton
+            WAITING.put(thread, new Wait(thread, initialization, INITIALIZING.get()));
+            // the waiter is added before checking the slot,
+            // so the owner can't release the token without
+            // unparking this thread
+            boolean interrupted = false;
+            try {
+                while (values.get(slot) == initialization) {
+                    List<Wait> cycle = findCycle(thread, initialization);
+                    if (cycle != null) {
+                        // every thread of the cycle may detect it, only
+                        // the victim fails, so the others can continue
+                        Thread victim = victimOf(cycle);
+                        if (victim == thread) {
+                            initialization.waiters.remove(thread);
+                            throw new InjectionException(formatDeadlock(cycle));
+                        }
+                        // the victim may have checked before this
+                        // thread started waiting, it must check again
+                        LockSupport.unpark(victim);
+                    }
+                    LockSupport.park(initialization);
+                    if (Thread.interrupted()) {
+                        interrupted = true;
+                    }
+                }
+            } finally {
+                WAITING.remove(thread);
+                if (interrupted) {
+                    // restore the interruption status
+                    Thread.currentThread().interrupt();
+                }
+            }
+            scope.initializationWaits.increment();
+            scope.initializationWaitNanos.add(System.nanoTime() - start);
+        }
+
         @Override
         public String toString() {
             return "LazySingleton(" + delegate.toString() + ")";
         }
 
+        /**
+         * @return The bound key, or this provider if the
+         * key is unknown, used in the error messages
+         */
+        private String describe() {
+            return key == null ? toString() : key.toString();
+        }
+
+    }
+
+    /**
+     * Follows the "waits-for" graph starting from the owner
+     * of the given {@code initialization}
+     *
+     * @return The waits that form a cycle with the given
+     * {@code thread}, null if there's no cycle
+     */
+    private static List<Wait> findCycle(Thread thread, Initialization initialization) {
+        List<Wait> cycle = new ArrayList<>();
+        cycle.add(WAITING.get(thread));
+        Thread owner = initialization.owner;
+        // the graph may contain a cycle that doesn't
+        // contain this thread, so the steps are limited
+        int steps = WAITING.size();
+        for (int i = 0; i <= steps; i++) {
+            if (owner == thread) {
+                return cycle;
+            }
+            Wait wait = WAITING.get(owner);
+            // the wait may have ended, but the thread
+            // isn't removed from the graph yet
+            if (wait == null || wait.waitingFor.released) {
+                return null;
+            }
+            cycle.add(wait);
+            owner = wait.waitingFor.owner;
+        }
+        return null;
+    }
+
+    /**
+     * Chooses the thread that fails to break the given
+     * cycle, the same thread is chosen by all the threads
+     * of the cycle
+     *
+     * @return The thread with the lowest id in the cycle
+     */
+    @SuppressWarnings("deprecation") // Thread#threadId() requires Java 19
+    private static Thread victimOf(List<Wait> cycle) {
+        Thread victim = null;
+        for (Wait wait : cycle) {
+            if (victim == null || wait.thread.getId() < victim.getId()) {
+                victim = wait.thread;
+            }
+        }
+        return victim;
+    }
+
+    private static String formatDeadlock(List<Wait> cycle) {
+        StringBuilder message = new StringBuilder(
+                "Deadlock detected while instantiating singletons, the threads wait for each other:"
+        );
+        for (Wait wait : cycle) {
+            message.append("\n    Thread '")
+                    .append(wait.thread.getName())
+                    .append("' instantiates ");
+            Deque<String> path = new ArrayDeque<>();
+            for (Initialization holding = wait.holding; holding != null; holding = holding.parent) {
+                path.addFirst(holding.provider.describe());
+            }
+            message.append(String.join(" -> ", path))
+                    .append(" and waits for ")
+                    .append(wait.waitingFor.provider.describe());
+        }
+        return message.toString();
+    }
+
+    /**
+     * Token stored in the slot of a singleton while
+     * it's being instantiated, only exists during the
+     * instantiation
+     */
+    static final class Initialization {
+
+        private final LazySingletonProvider<?> provider;
+        private final Thread owner;
+        private final Queue<Thread> waiters = new ConcurrentLinkedQueue<>();
+        // the singleton that the owner was instantiating
+        // when this instantiation started, can be null
+        private final Initialization parent;
+        // set when the instantiation ends, the owner
+        // doesn't wait for this token after it
+        private volatile boolean released;
+
+        private Initialization(LazySingletonProvider<?> provider, Thread owner, Initialization parent) {
+            this.provider = provider;
+            this.owner = owner;
+            this.parent = parent;
+        }
+
+        /**
+         * Unparks the threads waiting for the
+         * instantiation, must be called after
+         * the token is removed from the slot
+         */
+        private void release() {
+            released = true;
+            Thread waiter;
+            while ((waiter = waiters.poll()) != null) {
+                LockSupport.unpark(waiter);
+            }
+        }
+
+    }
+
+    /**
+     * A thread waiting for a singleton instantiated by other
+     * thread, an edge of the "waits-for" graph
+     */
+    private static final class Wait {
+
+        private final Thread thread;
+        private final Initialization waitingFor;
+        // the innermost singleton being instantiated by the
+        // waiting thread, null if it isn't instantiating any
+        private final Initialization holding;
+
+        private Wait(Thread thread, Initialization waitingFor, Initialization holding) {
+            this.thread = thread;
+            this.waitingFor = waitingFor;
+            this.holding = holding;
+        }
+
     }
 
 }
@@ -28,20 +28,34 @@ import team.unnamed.inject.util.Validate;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.AnnotatedElement;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 /**
  * Class responsible of scanning
  * scope annotations from {@link AnnotatedElement}
+ *
+ * <p>The scopes of the classes are cached, the cached
+ * scopes are scanned again when a new scope annotation
+ * is bound. This class is thread-safe</p>
  */
 public final class ScopeScanner {
 
-    private final Map<Class<? extends Annotation>, Scope> scopes
-            = new HashMap<>();
+    // copy-on-write, replaced when a scope is bound
+    private volatile Map<Class<? extends Annotation>, Scope> scopes
+            = Collections.singletonMap(Singleton.class, Scopes.SINGLETON);
+    // incremented after replacing the scopes map
+    private volatile int version;
+
+    private final ClassValue<ScannedScope> scanned = new ClassValue<ScannedScope>() {
+        @Override
+        protected ScannedScope computeValue(Class<?> type) {
+            return new ScannedScope();
+        }
+    };
 
     ScopeScanner() {
-        scopes.put(Singleton.class, Scopes.SINGLETON);
     }
 
     /**
@@ -55,10 +69,14 @@ public final class ScopeScanner {
      * @param annotationType The annotation type
      * @param scope The scope instance
      */
-    public void bind(Class<? extends Annotation> annotationType, Scope scope) {
+    public synchronized void bind(Class<? extends Annotation> annotationType, Scope scope) {
         Validate.notNull(annotationType, "annotationType");
         Validate.notNull(scope, "scope");
+        Map<Class<? extends Annotation>, Scope> scopes = new HashMap<>(this.scopes);
         scopes.put(annotationType, scope);
+        this.scopes = Collections.unmodifiableMap(scopes);
+        // invalidates the cached scopes
+        version++;
     }
 
     /**
@@ -71,6 +89,22 @@ public final class ScopeScanner {
      * found
      */
     public Scope scan(AnnotatedElement element) {
+        if (element instanceof Class) {
+            ScannedScope cached = scanned.get((Class<?>) element);
+            // the version is read before the scopes, a
+            // concurrent bind(...) makes the result stale
+            int version = this.version;
+            ScannedScope.Result result = cached.result;
+            if (result == null || result.version != version) {
+                result = new ScannedScope.Result(version, scan(element, scopes));
+                cached.result = result;
+            }
+            return result.scope;
+        }
+        return scan(element, scopes);
+    }
+
+    private static Scope scan(AnnotatedElement element, Map<Class<? extends Annotation>, Scope> scopes) {
         Annotation[] annotations = element.getDeclaredAnnotations();
         for (Annotation annotation : annotations) {
             Class<? extends Annotation> annotationType = annotation.annotationType();
@@ -82,4 +116,25 @@ public final class ScopeScanner {
         return Scopes.NONE;
     }
 
+    /**
+     * Holds the last scanned scope of a class
+     */
+    private static final class ScannedScope {
+
+        private volatile Result result;
+
+        private static final class Result {
+
+            private final int version;
+            private final Scope scope;
+
+            private Result(int version, Scope scope) {
+                this.version = version;
+                this.scope = scope;
+            }
+
+        }
+
+    }
+
 }
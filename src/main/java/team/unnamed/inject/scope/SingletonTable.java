@@ -0,0 +1,116 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject.scope;
+
+import team.unnamed.inject.Provider;
+import team.unnamed.inject.key.Key;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Dense storage for the instances of the singleton providers
+ * of an injector. Every singleton provider gets a slot in an
+ * array shared with the other singletons, so the provider
+ * doesn't need its own lock or instance field, and reading
+ * the instance is a single array load.
+ *
+ * <p>The singletons bound while configuring the injector are
+ * allocated together, in an array of the exact size, the
+ * singletons bound later (i.e. just-in-time bindings) are
+ * allocated in fixed-size chunks. The slots never move.</p>
+ *
+ * <p>A singleton provider that isn't allocated by a table
+ * allocates its own slot when it's used for the first time</p>
+ */
+public final class SingletonTable {
+
+    private static final int CHUNK_SIZE = 64;
+
+    // the chunk used for the next allocations
+    // and the next free slot in it
+    private AtomicReferenceArray<Object> chunk;
+    private int next;
+    private int size;
+
+    /**
+     * Allocates a slot for every singleton provider
+     * in the given map, other providers are ignored
+     *
+     * @param providers The scoped providers and their
+     *                  keys, used in the error messages
+     */
+    public synchronized void allocate(Map<Key<?>, ? extends Provider<?>> providers) {
+        int count = 0;
+        for (Provider<?> provider : providers.values()) {
+            if (provider instanceof LazySingletonScope.LazySingletonProvider) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            return;
+        }
+        AtomicReferenceArray<Object> values = new AtomicReferenceArray<>(count);
+        int slot = 0;
+        for (Map.Entry<Key<?>, ? extends Provider<?>> entry : providers.entrySet()) {
+            Provider<?> provider = entry.getValue();
+            if (provider instanceof LazySingletonScope.LazySingletonProvider
+                    && ((LazySingletonScope.LazySingletonProvider<?>) provider)
+                    .allocate(values, slot, entry.getKey())) {
+                slot++;
+            }
+        }
+        size += slot;
+    }
+
+    /**
+     * Allocates a slot for the given provider if it's
+     * a singleton provider
+     *
+     * @param key      The key bound to the provider, used
+     *                 in the error messages
+     * @param provider The scoped provider
+     */
+    public synchronized void allocate(Key<?> key, Provider<?> provider) {
+        if (!(provider instanceof LazySingletonScope.LazySingletonProvider)) {
+            return;
+        }
+        if (chunk == null || next == chunk.length()) {
+            chunk = new AtomicReferenceArray<>(CHUNK_SIZE);
+            next = 0;
+        }
+        if (((LazySingletonScope.LazySingletonProvider<?>) provider).allocate(chunk, next, key)) {
+            next++;
+            size++;
+        }
+    }
+
+    /**
+     * @return The count of allocated slots
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+}
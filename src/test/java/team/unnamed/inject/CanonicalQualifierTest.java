@@ -0,0 +1,101 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import team.unnamed.inject.key.Key;
+import team.unnamed.inject.key.TypeReference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+public class CanonicalQualifierTest {
+
+    @Test
+    public void test() throws Exception {
+        Route original = Foo.class.getDeclaredField("route").getAnnotation(Route.class);
+        Key<String> key = Key.of(TypeReference.of(String.class), null, original);
+        Annotation canonical = key.getQualifier();
+
+        // the canonical qualifier behaves as the original annotation
+        Assertions.assertNotSame(original, canonical);
+        Assertions.assertTrue(canonical instanceof Route);
+        Assertions.assertEquals(original, canonical);
+        Assertions.assertEquals(canonical, original);
+        Assertions.assertEquals(original.hashCode(), canonical.hashCode());
+        Assertions.assertEquals("users", ((Route) canonical).value());
+        Assertions.assertArrayEquals(new int[]{1, 2}, ((Route) canonical).versions());
+        ((Route) canonical).versions()[0] = 5;
+        Assertions.assertArrayEquals(new int[]{1, 2}, ((Route) canonical).versions());
+
+        Route other = Foo.class.getDeclaredField("sameRoute").getAnnotation(Route.class);
+        Assertions.assertEquals(key, Key.of(TypeReference.of(String.class), null, other));
+        Assertions.assertNotEquals(
+                key,
+                Key.of(TypeReference.of(String.class), null,
+                        Foo.class.getDeclaredField("otherRoute").getAnnotation(Route.class))
+        );
+
+        Injector injector = Injector.create(binder -> {
+            binder.bind(String.class).qualified(original).toInstance("users route");
+            binder.bind(String.class).named("foo").toInstance("named");
+        });
+        Foo foo = injector.getInstance(Foo.class);
+        Assertions.assertEquals("users route", foo.sameRoute);
+        Assertions.assertEquals("", foo.otherRoute);
+        Assertions.assertEquals("named", foo.named);
+    }
+
+    @Qualifier
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Route {
+
+        String value();
+
+        int[] versions() default {1, 2};
+
+    }
+
+    public static class Foo {
+
+        @Route("users")
+        private String route;
+
+        @Inject
+        @Route("users")
+        private String sameRoute;
+
+        @Inject
+        @Route(value = "users", versions = 3)
+        private String otherRoute;
+
+        @Inject
+        @Named("foo")
+        private String named;
+
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import team.unnamed.inject.error.InjectionException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ClassLookupTest {
+
+    @Test
+    public void test() {
+
+        Injector injector = Injector.create(binder -> {
+            binder.bind(Foo.class).to(FooImpl.class).singleton();
+            binder.bind(Bar.class).toProvider(new BarProvider());
+        });
+
+        // the second lookups use the cached plans
+        for (int i = 0; i < 3; i++) {
+            Foo foo = injector.getInstance(Foo.class);
+            Assertions.assertSame(foo, injector.getInstance(Foo.class));
+            Assertions.assertSame(foo, injector.getProvider(Foo.class).get());
+
+            // nested lookups done by providers
+            Bar bar = injector.getInstance(Bar.class);
+            Assertions.assertSame(foo, bar.foo);
+
+            Assertions.assertNotNull(injector.getInstance(Baz.class));
+        }
+
+        Assertions.assertThrows(InjectionException.class, () -> injector.getInstance(Unbound.class));
+    }
+
+    public interface Foo {
+    }
+
+    public interface Unbound {
+    }
+
+    public static class FooImpl implements Foo {
+    }
+
+    public static class Bar {
+
+        private final Foo foo;
+
+        Bar(Foo foo) {
+            this.foo = foo;
+        }
+
+    }
+
+    public static class Baz {
+
+        @Inject Foo foo;
+        @Inject Baz self;
+
+    }
+
+    public static class BarProvider implements Provider<Bar> {
+
+        @Inject Injector injector;
+
+        @Override
+        public Bar get() {
+            return new Bar(injector.getInstance(Foo.class));
+        }
+
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import team.unnamed.inject.resolve.ComponentResolver;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+
+public class ClassUnloadingTest {
+
+    @Test
+    public void test() throws Exception {
+
+        WeakReference<ClassLoader> classLoader = useIsolatedClass();
+
+        // the resolved members don't retain the class loader
+        for (int i = 0; i < 20 && classLoader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        Assertions.assertNull(classLoader.get());
+    }
+
+    private static WeakReference<ClassLoader> useIsolatedClass() throws Exception {
+        IsolatingClassLoader classLoader = new IsolatingClassLoader(Foo.class.getName());
+        Class<?> type = classLoader.loadClass(Foo.class.getName());
+        Assertions.assertNotSame(Foo.class, type);
+
+        Injector injector = Injector.create();
+        Object foo = injector.getInstance(type);
+        Assertions.assertNotNull(foo);
+        Assertions.assertNotNull(type.getDeclaredField("bar").get(foo));
+
+        // the members are resolved again
+        ComponentResolver.invalidate(classLoader);
+        Assertions.assertNotNull(Injector.create().getInstance(type));
+
+        return new WeakReference<>(classLoader);
+    }
+
+    public static class Foo {
+
+        @Inject public Bar bar;
+
+    }
+
+    public static class Bar {
+    }
+
+    /**
+     * Loads the given class again, the other
+     * classes are loaded by the parent
+     */
+    private static class IsolatingClassLoader extends ClassLoader {
+
+        private final String isolated;
+
+        IsolatingClassLoader(String isolated) {
+            super(ClassUnloadingTest.class.getClassLoader());
+            this.isolated = isolated;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(isolated)) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> loaded = findLoadedClass(name);
+                if (loaded == null) {
+                    byte[] bytes = read(name.replace('.', '/') + ".class");
+                    loaded = defineClass(name, bytes, 0, bytes.length);
+                }
+                return loaded;
+            }
+        }
+
+        private byte[] read(String resource) throws ClassNotFoundException {
+            try (InputStream input = getParent().getResourceAsStream(resource)) {
+                if (input == null) {
+                    throw new ClassNotFoundException(resource);
+                }
+                ByteArrayOutputStream output = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = input.read(buffer)) != -1) {
+                    output.write(buffer, 0, read);
+                }
+                return output.toByteArray();
+            } catch (IOException e) {
+                throw new ClassNotFoundException(resource, e);
+            }
+        }
+
+    }
+
+}
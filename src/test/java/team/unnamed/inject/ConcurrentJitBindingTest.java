@@ -0,0 +1,94 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrentJitBindingTest {
+
+    private static final int THREADS = 16;
+
+    @Test
+    public void test() throws Exception {
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int round = 0; round < 20; round++) {
+                // just-in-time bindings are created per injector
+                Injector injector = Injector.create();
+                Foo.instances.set(0);
+
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<Bar>> results = new ArrayList<>();
+                for (int i = 0; i < THREADS; i++) {
+                    results.add(executor.submit(() -> {
+                        start.await();
+                        return injector.getInstance(Bar.class);
+                    }));
+                }
+                start.countDown();
+
+                Foo foo = results.get(0).get().foo;
+                for (Future<Bar> result : results) {
+                    Assertions.assertSame(foo, result.get().foo);
+                }
+                Assertions.assertEquals(1, Foo.instances.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Singleton
+    public static class FooImpl implements Foo {
+
+        FooImpl() {
+            instances.incrementAndGet();
+        }
+
+    }
+
+    @Targetted(FooImpl.class)
+    public interface Foo {
+
+        AtomicInteger instances = new AtomicInteger();
+
+    }
+
+    public static class Bar {
+
+        @Inject Foo foo;
+
+    }
+
+}
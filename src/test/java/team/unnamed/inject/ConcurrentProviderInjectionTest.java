@@ -0,0 +1,89 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrentProviderInjectionTest {
+
+    private static final int THREADS = 16;
+
+    @Test
+    public void test() throws Exception {
+
+        Injector injector = Injector.create(binder ->
+                binder.bind(Foo.class).toProvider(FooProvider.class));
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Foo>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return injector.getInstance(Foo.class);
+                }));
+            }
+            start.countDown();
+            for (Future<Foo> result : results) {
+                Assertions.assertNotNull(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        // the provider is injected only once
+        Assertions.assertEquals(1, FooProvider.instances.get());
+    }
+
+    public static class Foo {
+    }
+
+    public static class FooProvider implements Provider<Foo> {
+
+        static final AtomicInteger instances = new AtomicInteger();
+
+        FooProvider() throws InterruptedException {
+            instances.incrementAndGet();
+            // slow provider creation
+            Thread.sleep(50);
+        }
+
+        @Override
+        public Foo get() {
+            return new Foo();
+        }
+
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import team.unnamed.inject.scope.LazySingletonScope;
+import team.unnamed.inject.scope.Scopes;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ConcurrentSingletonTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    public void test() throws Exception {
+        LazySingletonScope scope = (LazySingletonScope) Scopes.SINGLETON;
+        long waits = scope.getInitializationWaits();
+
+        AtomicInteger created = new AtomicInteger();
+        Injector injector = Injector.create(binder ->
+                binder.bind(Object.class).toProvider(() -> {
+                    created.incrementAndGet();
+                    try {
+                        // an expensive singleton
+                        Thread.sleep(200);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException(e);
+                    }
+                    return new Object();
+                }).singleton()
+        );
+
+        CountDownLatch start = new CountDownLatch(1);
+        Object[] instances = new Object[THREADS];
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            int index = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                instances[index] = injector.getInstance(Object.class);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Assertions.assertEquals(1, created.get());
+        for (Object instance : instances) {
+            Assertions.assertSame(instances[0], instance);
+        }
+        Assertions.assertTrue(scope.getInitializationWaits() > waits);
+        Assertions.assertTrue(scope.getInitializationWaitNanos() > 0);
+
+        // failed instantiations are retried
+        AtomicInteger attempts = new AtomicInteger();
+        Provider<Object> failing = Scopes.SINGLETON.scope(() -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new IllegalStateException("first attempt");
+            }
+            return new Object();
+        });
+        Assertions.assertThrows(IllegalStateException.class, failing::get);
+        Assertions.assertSame(failing.get(), failing.get());
+        Assertions.assertEquals(2, attempts.get());
+    }
+
+}
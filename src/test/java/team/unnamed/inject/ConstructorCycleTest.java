@@ -0,0 +1,183 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import team.unnamed.inject.error.InjectionException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+public class ConstructorCycleTest {
+
+    @Test
+    public void test() {
+        Injector injector = Injector.create(binder -> {
+            binder.bind(Foo.class).to(FooImpl.class);
+            binder.bind(Bar.class).to(BarImpl.class);
+            binder.bind(Broken.class).to(BrokenImpl.class);
+        });
+
+        // the cycle is broken using a proxy of Foo
+        Foo foo = injector.getInstance(Foo.class);
+        Bar bar = foo.bar();
+        Assertions.assertNotSame(foo, bar.foo());
+        Assertions.assertEquals("foo", bar.foo().name());
+        Assertions.assertSame(bar, bar.foo().bar());
+
+        // classes cannot be proxied
+        InjectionException exception = Assertions.assertThrows(
+                InjectionException.class,
+                () -> injector.getInstance(Baz.class)
+        );
+        Assertions.assertTrue(
+                exception.getMessage().contains("Cyclic dependency between constructors"),
+                exception.getMessage()
+        );
+
+        // the proxy can't be used if the construction fails
+        Assertions.assertThrows(InjectionException.class, () -> injector.getInstance(Broken.class));
+        IllegalStateException failed = Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> BrokenHolder.BROKEN.get().toString()
+        );
+        Assertions.assertTrue(failed.getMessage().contains("construction of"), failed.getMessage());
+    }
+
+    @Test
+    public void testDeepCycle() {
+        int depth = 40; // more than the initial capacity of the stack
+        AtomicReference<Injector> injectorRef = new AtomicReference<>();
+        Injector injector = Injector.create(binder -> {
+            for (int i = 0; i < depth; i++) {
+                String next = Integer.toString((i + 1) % depth);
+                binder.bind(Object.class).named(Integer.toString(i))
+                        .toProvider(() -> injectorRef.get().getInstance(Object.class, next));
+            }
+        });
+        injectorRef.set(injector);
+
+        InjectionException exception = Assertions.assertThrows(
+                InjectionException.class,
+                () -> injector.getInstance(Object.class, "5")
+        );
+        String message = exception.getMessage();
+        Assertions.assertTrue(message.contains("@Named(\"39\")"), message);
+        Assertions.assertTrue(message.contains("@Named(\"0\")"), message);
+
+        // the stack is reusable after the failure
+        Assertions.assertEquals("", injector.getInstance(String.class));
+    }
+
+    public interface Foo {
+
+        String name();
+
+        Bar bar();
+
+    }
+
+    public interface Bar {
+
+        Foo foo();
+
+    }
+
+    public static class FooImpl implements Foo {
+
+        private final Bar bar;
+
+        @Inject
+        public FooImpl(Bar bar) {
+            this.bar = bar;
+        }
+
+        @Override
+        public String name() {
+            return "foo";
+        }
+
+        @Override
+        public Bar bar() {
+            return bar;
+        }
+
+    }
+
+    public static class BarImpl implements Bar {
+
+        private final Foo foo;
+
+        @Inject
+        public BarImpl(Foo foo) {
+            this.foo = foo;
+        }
+
+        @Override
+        public Foo foo() {
+            return foo;
+        }
+
+    }
+
+    public interface Broken {
+    }
+
+    public static class BrokenImpl implements Broken {
+
+        @Inject
+        public BrokenImpl(BrokenHolder holder) {
+            throw new IllegalStateException("broken");
+        }
+
+    }
+
+    public static class BrokenHolder {
+
+        static final AtomicReference<Broken> BROKEN = new AtomicReference<>();
+
+        @Inject
+        public BrokenHolder(Broken broken) {
+            BROKEN.set(broken);
+        }
+
+    }
+
+    public static class Baz {
+
+        @Inject
+        public Baz(Qux qux) {
+        }
+
+    }
+
+    public static class Qux {
+
+        @Inject
+        public Qux(Baz baz) {
+        }
+
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import team.unnamed.inject.error.InjectionException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ErrorPropagationTest {
+
+    @Test
+    public void test() {
+        Injector injector = Injector.create();
+
+        // errors aren't attached as provision errors
+        Assertions.assertThrows(StackOverflowError.class, () -> injector.getInstance(Foo.class));
+        Assertions.assertThrows(StackOverflowError.class, () -> injector.getInstance(Bar.class));
+
+        // exceptions are reported with their cause
+        InjectionException exception = Assertions.assertThrows(
+                InjectionException.class,
+                () -> injector.getInstance(Baz.class)
+        );
+        Assertions.assertTrue(exception.getMessage().contains("Baz failed"), exception.getMessage());
+    }
+
+    public static class Foo {
+
+        public Foo() {
+            throw new StackOverflowError();
+        }
+
+    }
+
+    public static class Bar {
+
+        @Inject
+        void fail() {
+            throw new StackOverflowError();
+        }
+
+    }
+
+    public static class Baz {
+
+        public Baz() throws Exception {
+            throw new Exception("Baz failed");
+        }
+
+    }
+
+}
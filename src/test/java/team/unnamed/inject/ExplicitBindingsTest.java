@@ -0,0 +1,159 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import team.unnamed.inject.error.InjectionException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ExplicitBindingsTest {
+
+    @Test
+    public void test() {
+
+        Injector injector = Injector.create(binder -> {
+            binder.requireExplicitBindings();
+            binder.bind(Foo.class).to(FooImpl.class);
+            binder.bind(String.class).toInstance("hello");
+            binder.bind(Bar.class).to(Baz.class);
+        });
+
+        // annotations of the bound types and link targets are used
+        Foo foo = injector.getInstance(Foo.class);
+        Assertions.assertSame(foo, injector.getInstance(Foo.class));
+        Assertions.assertEquals("hello", ((FooImpl) foo).value);
+        Assertions.assertTrue(injector.getInstance(Bar.class) instanceof BazImpl);
+
+        // unbound keys aren't constructed implicitly
+        Assertions.assertNotNull(Injector.create().getInstance(Unbound.class));
+        InjectionException exception = Assertions.assertThrows(
+                InjectionException.class,
+                () -> injector.getInstance(Unbound.class)
+        );
+        Assertions.assertTrue(exception.getMessage().contains("explicit bindings"));
+        Assertions.assertThrows(
+                InjectionException.class,
+                () -> injector.getInstance(RequiresUnbound.class)
+        );
+    }
+
+    @Test
+    public void testProviderClasses() {
+        for (Stage stage : Stage.values()) {
+            Injector injector = Injector.create(stage, binder -> {
+                binder.requireExplicitBindings();
+                binder.bind(String.class).toInstance("hello");
+                binder.bind(Qux.class).toProvider(QuxProvider.class);
+                binder.bind(Provided.class).to(ProvidedImpl.class);
+            });
+
+            // the provider classes and the @ProvidedBy
+            // providers are constructed without a binding
+            Assertions.assertEquals("hello", injector.getInstance(Qux.class).value);
+            Assertions.assertEquals("hello", injector.getInstance(Provided.class).value());
+        }
+
+        // the provider classes still require their dependencies
+        InjectionException exception = Assertions.assertThrows(
+                InjectionException.class,
+                () -> Injector.create(binder -> {
+                    binder.requireExplicitBindings();
+                    binder.bind(Qux.class).toProvider(QuxProvider.class);
+                }).getInstance(Qux.class)
+        );
+        Assertions.assertTrue(exception.getMessage().contains("QuxProvider"), exception.getMessage());
+    }
+
+    public interface Foo {
+    }
+
+    public interface Bar {
+    }
+
+    @Targetted(BazImpl.class)
+    public interface Baz extends Bar {
+    }
+
+    @Singleton
+    public static class FooImpl implements Foo {
+
+        @Inject String value;
+
+    }
+
+    public static class BazImpl implements Baz {
+    }
+
+    public static class Unbound {
+    }
+
+    public static class Qux {
+
+        private final String value;
+
+        public Qux(String value) {
+            this.value = value;
+        }
+
+    }
+
+    public static class QuxProvider implements Provider<Qux> {
+
+        @Inject String value;
+
+        @Override
+        public Qux get() {
+            return new Qux(value);
+        }
+
+    }
+
+    public interface Provided {
+
+        String value();
+
+    }
+
+    @ProvidedBy(ProvidedImplProvider.class)
+    public interface ProvidedImpl extends Provided {
+    }
+
+    public static class ProvidedImplProvider implements Provider<ProvidedImpl> {
+
+        @Inject String value;
+
+        @Override
+        public ProvidedImpl get() {
+            return () -> value;
+        }
+
+    }
+
+    public static class RequiresUnbound {
+
+        @Inject Unbound unbound;
+
+    }
+
+}
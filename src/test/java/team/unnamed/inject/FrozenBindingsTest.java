@@ -0,0 +1,92 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class FrozenBindingsTest {
+
+    @Test
+    public void test() throws Exception {
+
+        Injector injector = Injector.create(binder -> {
+            binder.bind(Foo.class).to(FooImpl.class);
+            binder.bind(String.class).toInstance("hello");
+        });
+
+        // bindings added after the injector creation
+        // (scopes and just-in-time bindings) are visible
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Object[]>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> new Object[]{
+                        injector.getInstance(Foo.class),
+                        injector.getInstance(FooImpl.class),
+                        injector.getInstance(Bar.class)
+                }));
+            }
+            Object[] first = results.get(0).get();
+            Assertions.assertTrue(first[0] instanceof FooImpl);
+            Assertions.assertTrue(first[2] instanceof BarImpl);
+            for (Future<Object[]> result : results) {
+                Object[] instances = result.get();
+                Assertions.assertSame(first[1], instances[1]);
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        Assertions.assertSame(
+                injector.getInstance(FooImpl.class),
+                injector.getInstance(FooImpl.class)
+        );
+        Assertions.assertEquals("hello", injector.getInstance(String.class));
+    }
+
+    public interface Foo {
+    }
+
+    @Targetted(BarImpl.class)
+    public interface Bar {
+    }
+
+    @Singleton
+    public static class FooImpl implements Foo {
+    }
+
+    public static class BarImpl implements Bar {
+
+        @Inject String value;
+
+    }
+
+}
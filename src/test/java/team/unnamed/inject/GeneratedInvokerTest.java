@@ -0,0 +1,146 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import team.unnamed.inject.impl.ProvisionStack;
+import team.unnamed.inject.key.TypeReference;
+import team.unnamed.inject.resolve.ComponentResolver;
+import team.unnamed.inject.resolve.invoke.ExecutableInvoker;
+import team.unnamed.inject.resolve.invoke.FieldInvoker;
+import team.unnamed.inject.resolve.invoke.Invokers;
+import team.unnamed.inject.resolve.solution.InjectableMember;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+
+public class GeneratedInvokerTest {
+
+    @Test
+    public void test() throws Throwable {
+
+        // requires Java 15+, see the testJava17 task
+        Assumptions.assumeTrue(
+                Invokers.isGenerationSupported(),
+                "Invoker generation isn't supported by this runtime"
+        );
+
+        Constructor<Foo> constructor = Foo.class.getDeclaredConstructor(String.class, int.class);
+        ExecutableInvoker constructorInvoker = Invokers.generate(constructor);
+        Assertions.assertNotNull(constructorInvoker);
+        Assertions.assertTrue(Invokers.isGenerated(constructorInvoker));
+        Assertions.assertFalse(Invokers.isGenerated(Invokers.of(constructor)));
+        Foo foo = (Foo) constructorInvoker.invoke(null, new Object[]{"hello", 5});
+        Assertions.assertEquals("hello", foo.name);
+        Assertions.assertEquals(5, foo.number);
+
+        Method method = Foo.class.getDeclaredMethod("multiply", int.class);
+        ExecutableInvoker methodInvoker = Invokers.generate(method);
+        Assertions.assertNotNull(methodInvoker);
+        Assertions.assertEquals(10, methodInvoker.invoke(foo, new Object[]{2}));
+
+        Field field = Foo.class.getDeclaredField("bar");
+        FieldInvoker fieldInvoker = Invokers.generate(field);
+        Assertions.assertNotNull(fieldInvoker);
+        Bar bar = new Bar();
+        fieldInvoker.set(foo, bar);
+        Assertions.assertSame(bar, foo.bar);
+
+        // final fields cannot be set by generated code
+        Assertions.assertNull(Invokers.generate(Foo.class.getDeclaredField("name")));
+
+        int threshold = Invokers.getGenerationThreshold();
+        Invokers.setGenerationThreshold(2);
+        try {
+            Injector injector = Injector.create(binder -> {
+                binder.bind(String.class).toInstance("injected");
+                binder.bind(Integer.class).toInstance(3);
+            });
+            for (int i = 0; i < 5; i++) {
+                Baz baz = injector.getInstance(Baz.class);
+                Assertions.assertEquals("injected", baz.name);
+                Assertions.assertEquals(3, baz.number);
+                Assertions.assertNotNull(baz.bar);
+                Assertions.assertNotNull(baz.bar2);
+            }
+
+            // the threshold was crossed, the generated invokers are used
+            TypeReference<Baz> type = TypeReference.of(Baz.class);
+            Assertions.assertTrue(ComponentResolver.constructor().get(new ProvisionStack(), type).isGenerated());
+            for (InjectableMember member : ComponentResolver.fields().get(type)) {
+                Assertions.assertTrue(member.isGenerated());
+            }
+            for (InjectableMember member : ComponentResolver.methods().get(type)) {
+                Assertions.assertTrue(member.isGenerated());
+            }
+        } finally {
+            // applies to every injector, must not leak to other tests
+            Invokers.setGenerationThreshold(threshold);
+        }
+    }
+
+    public static class Bar {
+    }
+
+    public static class Foo {
+
+        private final String name;
+        private final int number;
+        private Bar bar;
+
+        private Foo(String name, int number) {
+            this.name = name;
+            this.number = number;
+        }
+
+        private int multiply(int factor) {
+            return number * factor;
+        }
+
+    }
+
+    public static class Baz {
+
+        private final String name;
+        private final int number;
+        @Inject private Bar bar;
+        private Bar bar2;
+
+        @Inject
+        private Baz(String name, int number) {
+            this.name = name;
+            this.number = number;
+        }
+
+        @Inject
+        private void setBar2(Bar bar2) {
+            this.bar2 = bar2;
+        }
+
+    }
+
+}
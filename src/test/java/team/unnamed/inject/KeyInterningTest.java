@@ -0,0 +1,54 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import team.unnamed.inject.impl.Annotations;
+import team.unnamed.inject.key.Key;
+import team.unnamed.inject.key.TypeReference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class KeyInterningTest {
+
+    @Test
+    public void test() {
+
+        Assertions.assertSame(TypeReference.of(String.class), TypeReference.of(String.class));
+        Assertions.assertSame(Key.of(String.class), Key.of(TypeReference.of(String.class)));
+        Assertions.assertSame(Key.of(String.class), Key.of(new TypeReference<String>() {}));
+
+        Key<List<String>> listKey = Key.of(new TypeReference<List<String>>() {});
+        Key<List<String>> otherListKey = Key.of(new TypeReference<List<String>>() {});
+        Assertions.assertNotSame(listKey, otherListKey);
+        Assertions.assertSame(listKey.intern(), otherListKey.intern());
+
+        Key<String> namedKey = Key.of(String.class).withQualifier(Annotations.createNamed("hello"));
+        Key<String> otherNamedKey = Key.of(String.class).withQualifier(Annotations.createNamed("hello"));
+        Assertions.assertEquals(namedKey, otherNamedKey);
+        Assertions.assertSame(namedKey.intern(), otherNamedKey.intern());
+    }
+
+}
@@ -0,0 +1,86 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import team.unnamed.inject.assisted.Assist;
+import team.unnamed.inject.key.InjectedKey;
+import team.unnamed.inject.key.TypeReference;
+import team.unnamed.inject.resolve.ComponentResolver;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.reflect.Constructor;
+import java.util.List;
+
+public class KeyResolutionTest {
+
+    @Test
+    public void test() throws Exception {
+        Constructor<Foo> constructor = Foo.class.getDeclaredConstructor(
+                String.class, String.class, String.class, String.class, String.class
+        );
+
+        // resolved twice, the second time uses the
+        // cached annotation classification
+        for (int i = 0; i < 2; i++) {
+            List<InjectedKey<?>> keys = ComponentResolver.keys().keysOf(
+                    TypeReference.of(Foo.class),
+                    constructor.getParameters()
+            );
+
+            Assertions.assertTrue(keys.get(0).isOptional());
+            Assertions.assertTrue(keys.get(1).isAssisted());
+
+            Assertions.assertEquals(Level.class, keys.get(2).getKey().getQualifierType());
+            Assertions.assertNull(keys.get(2).getKey().getQualifier());
+
+            Assertions.assertNull(keys.get(3).getKey().getQualifierType());
+            Assertions.assertEquals(3, ((Level) keys.get(3).getKey().getQualifier()).value());
+
+            Assertions.assertEquals("x", ((Named) keys.get(4).getKey().getQualifier()).value());
+        }
+    }
+
+    @Qualifier
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface Level {
+        int value() default 1;
+    }
+
+    public static class Foo {
+
+        Foo(
+                @Nullable String a,
+                @Assist String b,
+                @Level String c,
+                @Level(3) String d,
+                @Named("x") String e
+        ) {
+        }
+
+    }
+
+}
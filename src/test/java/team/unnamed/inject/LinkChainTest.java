@@ -0,0 +1,83 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class LinkChainTest {
+
+    @Test
+    public void test() {
+        Injector injector = Injector.create(binder -> {
+            binder.bind(Foo.class).to(Bar.class);
+            binder.bind(Bar.class).to(Baz.class);
+            binder.bind(Baz.class).to(BazImpl.class);
+            binder.bind(Scoped.class).to(ScopedImpl.class).singleton();
+        });
+
+        for (int i = 0; i < 3; i++) {
+            Foo foo = injector.getInstance(Foo.class);
+            Assertions.assertTrue(foo instanceof BazImpl);
+
+            // cyclic dependency resolved through the link chain
+            BazImpl baz = (BazImpl) foo;
+            Assertions.assertSame(baz, baz.foo);
+            Assertions.assertNotSame(foo, injector.getInstance(Foo.class));
+
+            // the scope of an intermediate link is kept
+            Assertions.assertSame(
+                    injector.getInstance(Scoped.class),
+                    injector.getInstance(Scoped.class)
+            );
+            Assertions.assertSame(
+                    injector.getInstance(ScopedImpl.class),
+                    injector.getInstance(ScopedImpl.class)
+            );
+        }
+    }
+
+    public interface Foo {
+    }
+
+    public interface Bar extends Foo {
+    }
+
+    public interface Baz extends Bar {
+    }
+
+    public interface Scoped {
+    }
+
+    public static class BazImpl implements Baz {
+
+        @Inject Foo foo;
+
+    }
+
+    @Singleton
+    public static class ScopedImpl implements Scoped {
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import team.unnamed.inject.key.Key;
+import team.unnamed.inject.key.TypeReference;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+public class NamedLookupTest {
+
+    private static final int TENANTS = 10_000;
+
+    @Test
+    public void test() {
+        Injector injector = Injector.create(binder -> {
+            for (int i = 0; i < TENANTS; i++) {
+                binder.bind(String.class).named("tenant-" + i).toInstance("value-" + i);
+            }
+            binder.bind(new TypeReference<List<String>>() {})
+                    .named("routes")
+                    .toInstance(Collections.singletonList("/users"));
+        });
+
+        for (int i = 0; i < TENANTS; i++) {
+            Assertions.assertEquals("value-" + i, injector.getInstance(String.class, "tenant-" + i));
+        }
+        Assertions.assertEquals(
+                Collections.singletonList("/users"),
+                injector.getInstance(new TypeReference<List<String>>() {}, "routes")
+        );
+
+        // the same bindings are used by the injected members
+        Foo foo = injector.getInstance(Foo.class);
+        Assertions.assertEquals("value-5", foo.tenant);
+
+        // not bound, created like any other qualified key
+        Assertions.assertEquals("", injector.getInstance(String.class, "unknown"));
+
+        // implementations that don't override the named lookup
+        Injector forwarding = new ForwardingInjector(injector);
+        Assertions.assertEquals("value-7", forwarding.getInstance(String.class, "tenant-7"));
+    }
+
+    public static class Foo {
+
+        @Inject
+        @Named("tenant-5")
+        private String tenant;
+
+    }
+
+    public static class ForwardingInjector implements Injector {
+
+        private final Injector delegate;
+
+        public ForwardingInjector(Injector delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public <T> Provider<? extends T> getProvider(TypeReference<T> key) {
+            return delegate.getProvider(key);
+        }
+
+        @Override
+        public void injectStaticMembers(Class<?> clazz) {
+            delegate.injectStaticMembers(clazz);
+        }
+
+        @Override
+        public <T> void injectMembers(TypeReference<T> type, T instance) {
+            delegate.injectMembers(type, instance);
+        }
+
+        @Override
+        public <T> T getInstance(TypeReference<T> type) {
+            return delegate.getInstance(type);
+        }
+
+        @Override
+        public <T> T getInstance(Key<T> key) {
+            return delegate.getInstance(key);
+        }
+
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import team.unnamed.inject.error.ErrorAttachableImpl;
+import team.unnamed.inject.error.InjectionException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class OptionalInjectionTest {
+
+    @Test
+    public void test() {
+
+        ErrorAttachableImpl errors = new ErrorAttachableImpl();
+        errors.attach("first");
+        int checkpoint = errors.checkpoint();
+        errors.attach("second", "third");
+        errors.rollback(checkpoint);
+        Assertions.assertEquals(1, errors.errorCount());
+        Assertions.assertEquals("first", errors.getErrorMessages().get(0));
+
+        Injector injector = Injector.create();
+
+        // the failed lookups are cached, the
+        // results must be the same every time
+        for (int i = 0; i < 3; i++) {
+            // the errors of the optional keys are
+            // discarded, the instance is created
+            Foo foo = injector.getInstance(Foo.class);
+            Assertions.assertNotNull(foo);
+            Assertions.assertNull(foo.field);
+            Assertions.assertNull(foo.method);
+            Assertions.assertNull(foo.parameter);
+
+            // the errors of the required keys are still reported
+            InjectionException exception = Assertions.assertThrows(
+                    InjectionException.class,
+                    () -> injector.getInstance(Bar.class)
+            );
+            Assertions.assertTrue(exception.getMessage().contains(Baz.class.getName()));
+        }
+    }
+
+    public interface Baz {
+    }
+
+    public static class Foo {
+
+        @Inject @Nullable Baz field;
+        final Baz parameter;
+        Baz method;
+
+        @Inject
+        Foo(@Nullable Baz parameter) {
+            this.parameter = parameter;
+        }
+
+        @Inject
+        void setBaz(@Nullable Baz baz) {
+            this.method = baz;
+        }
+
+    }
+
+    public static class Bar {
+
+        @Inject Baz baz;
+
+    }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import team.unnamed.inject.error.InjectionException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ProductionStageTest {
+
+    @Test
+    public void test() {
+
+        Injector injector = Injector.create(Stage.PRODUCTION, binder -> {
+            binder.bind(Foo.class).to(FooImpl.class);
+            binder.bind(Bar.class).to(BarImpl.class).singleton();
+        });
+
+        // the bindings are resolved, but nothing is instantiated
+        Assertions.assertEquals(0, BarImpl.instances);
+
+        Foo foo = injector.getInstance(Foo.class);
+        Assertions.assertTrue(foo instanceof FooImpl);
+        Assertions.assertTrue(((FooImpl) foo).bar instanceof BarImpl);
+        Assertions.assertEquals(1, BarImpl.instances);
+
+        // Bar is not bound, the error is reported when
+        // requesting the key in the development stage
+        Injector.create(binder -> binder.bind(Foo.class).to(FooImpl.class));
+        InjectionException exception = Assertions.assertThrows(
+                InjectionException.class,
+                () -> Injector.create(Stage.PRODUCTION, binder -> binder.bind(Foo.class).to(FooImpl.class))
+        );
+        Assertions.assertTrue(exception.getMessage().contains(Bar.class.getName()));
+    }
+
+    public interface Foo {
+    }
+
+    public interface Bar {
+    }
+
+    public static class FooImpl implements Foo {
+
+        @Inject Bar bar;
+        @Inject @Nullable Baz baz;
+
+    }
+
+    public static class BarImpl implements Bar {
+
+        static int instances;
+
+        BarImpl() {
+            instances++;
+        }
+
+    }
+
+    // not injectable, optional dependency
+    public interface Baz {
+    }
+
+}
@@ -0,0 +1,133 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import team.unnamed.inject.error.InjectionException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+public class ProviderDeadlockTest {
+
+    static final CountDownLatch STARTED = new CountDownLatch(2);
+
+    @Test
+    public void test() throws Exception {
+        // "first" injects the provider of Foo, that requires Bar,
+        // while "second" injects the provider of Bar, that requires Foo
+        Injector injector = Injector.create(binder -> {
+            binder.bind(Foo.class).toProvider(FooProvider.class);
+            binder.bind(Bar.class).toProvider(BarProvider.class);
+        });
+
+        List<Object> instances = new CopyOnWriteArrayList<>();
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        List<String> failed = new CopyOnWriteArrayList<>();
+        Thread first = new Thread(() -> request(injector, Foo.class, instances, errors, failed), "first");
+        Thread second = new Thread(() -> request(injector, Bar.class, instances, errors, failed), "second");
+        first.start();
+        second.start();
+        first.join(10_000);
+        second.join(10_000);
+
+        Assertions.assertFalse(first.isAlive() || second.isAlive(), "Threads are deadlocked");
+        // only the thread with the lowest id fails and releases
+        // its provider, so the other thread can continue
+        Assertions.assertEquals(1, errors.size());
+        Assertions.assertEquals(1, instances.size());
+        Assertions.assertEquals(
+                first.getId() < second.getId() ? "first" : "second",
+                failed.get(0)
+        );
+        String message = errors.get(0).getMessage();
+        Assertions.assertTrue(message.contains("Deadlock detected"), message);
+        Assertions.assertTrue(message.contains("Thread 'first'"), message);
+        Assertions.assertTrue(message.contains("Thread 'second'"), message);
+    }
+
+    private static void request(
+            Injector injector,
+            Class<?> type,
+            List<Object> instances,
+            List<Throwable> errors,
+            List<String> failed
+    ) {
+        try {
+            instances.add(injector.getInstance(type));
+        } catch (InjectionException e) {
+            errors.add(e);
+            failed.add(Thread.currentThread().getName());
+        }
+    }
+
+    private static void dependency(Injector injector, String thread, Class<?> type) {
+        if (Thread.currentThread().getName().equals(thread)) {
+            STARTED.countDown();
+            try {
+                STARTED.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            injector.getInstance(type);
+        }
+    }
+
+    public static class Foo {
+    }
+
+    public static class Bar {
+    }
+
+    public static class FooProvider implements Provider<Foo> {
+
+        @Inject
+        public FooProvider(Injector injector) {
+            dependency(injector, "first", Bar.class);
+        }
+
+        @Override
+        public Foo get() {
+            return new Foo();
+        }
+
+    }
+
+    public static class BarProvider implements Provider<Bar> {
+
+        @Inject
+        public BarProvider(Injector injector) {
+            dependency(injector, "second", Foo.class);
+        }
+
+        @Override
+        public Bar get() {
+            return new Bar();
+        }
+
+    }
+
+}
@@ -0,0 +1,139 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import team.unnamed.inject.error.ErrorAttachableImpl;
+import team.unnamed.inject.error.InjectionException;
+import team.unnamed.inject.key.TypeReference;
+import team.unnamed.inject.resolve.ComponentResolver;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class ResolutionCacheTest {
+
+    private static final int THREADS = 16;
+
+    @Test
+    public void test() throws Exception {
+
+        Injector injector = Injector.create();
+
+        // the resolution errors are reported every time
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertThrows(InjectionException.class, () -> injector.getInstance(NoConstructor.class));
+        }
+
+        // cold types resolved by many threads at the same time
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Foo>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return injector.getInstance(Foo.class);
+                }));
+            }
+            start.countDown();
+            for (Future<Foo> result : results) {
+                Foo foo = result.get();
+                Assertions.assertNotNull(foo.bar);
+                Assertions.assertNotNull(foo.baz);
+                Assertions.assertNotNull(foo.bar.baz);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailure() {
+
+        TypeReference<?> type = TypeReference.of(Box.class);
+
+        // every request throws a new exception, caused by the cached failure
+        IllegalStateException first = Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> ComponentResolver.constructor().get(new ErrorAttachableImpl(), type)
+        );
+        IllegalStateException second = Assertions.assertThrows(
+                IllegalStateException.class,
+                () -> ComponentResolver.constructor().get(new ErrorAttachableImpl(), type)
+        );
+
+        Assertions.assertNotSame(first, second);
+        Assertions.assertNotNull(first.getCause());
+        Assertions.assertSame(first.getCause(), second.getCause());
+        Assertions.assertTrue(first.getMessage().contains(Box.class.getName()));
+    }
+
+    public static class Box<T> {
+
+        @Inject
+        Box(T value) {
+        }
+
+    }
+
+    public static class NoConstructor {
+
+        NoConstructor(String value) {
+        }
+
+    }
+
+    public static class Foo {
+
+        @Inject Bar bar;
+        Baz baz;
+
+        @Inject
+        void setBaz(Baz baz) {
+            this.baz = baz;
+        }
+
+    }
+
+    public static class Bar {
+
+        final Baz baz;
+
+        @Inject
+        Bar(Baz baz) {
+            this.baz = baz;
+        }
+
+    }
+
+    public static class Baz {
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import team.unnamed.inject.scope.Scope;
+import team.unnamed.inject.scope.Scopes;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+
+public class ScopeScannerTest {
+
+    @Test
+    public void test() {
+
+        Assertions.assertSame(Scopes.SINGLETON, Scopes.getScanner().scan(Foo.class));
+        Assertions.assertSame(Scopes.SINGLETON, Scopes.getScanner().scan(Foo.class));
+
+        // the cached scopes are scanned again when
+        // a scope annotation is bound
+        Assertions.assertSame(Scopes.NONE, Scopes.getScanner().scan(Bar.class));
+        Scope scope = Scopes.SINGLETON;
+        Scopes.getScanner().bind(TestScoped.class, scope);
+        Assertions.assertSame(scope, Scopes.getScanner().scan(Bar.class));
+
+        Injector injector = Injector.create();
+        Assertions.assertSame(injector.getInstance(Bar.class), injector.getInstance(Bar.class));
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    public @interface TestScoped {
+    }
+
+    @Singleton
+    public static class Foo {
+    }
+
+    @TestScoped
+    public static class Bar {
+    }
+
+}
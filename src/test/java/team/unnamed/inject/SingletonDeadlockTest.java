@@ -0,0 +1,107 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import team.unnamed.inject.error.InjectionException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class SingletonDeadlockTest {
+
+    @Test
+    public void test() throws Exception {
+        AtomicReference<Injector> injectorRef = new AtomicReference<>();
+        CountDownLatch started = new CountDownLatch(2);
+
+        // "first" instantiates A, that requires B, while
+        // "second" instantiates B, that requires A
+        Injector injector = Injector.create(binder -> {
+            binder.bind(Object.class).named("a")
+                    .toProvider(() -> dependency(injectorRef.get(), started, "first", "b"))
+                    .singleton();
+            binder.bind(Object.class).named("b")
+                    .toProvider(() -> dependency(injectorRef.get(), started, "second", "a"))
+                    .singleton();
+        });
+        injectorRef.set(injector);
+
+        List<Object> instances = new CopyOnWriteArrayList<>();
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        List<String> failed = new CopyOnWriteArrayList<>();
+        Thread first = new Thread(() -> request(injector, "a", instances, errors, failed), "first");
+        Thread second = new Thread(() -> request(injector, "b", instances, errors, failed), "second");
+        first.start();
+        second.start();
+        first.join(10_000);
+        second.join(10_000);
+
+        Assertions.assertFalse(first.isAlive() || second.isAlive(), "Threads are deadlocked");
+        // only the thread with the lowest id fails and releases
+        // its singleton, so the other thread can continue
+        Assertions.assertEquals(1, errors.size());
+        Assertions.assertEquals(1, instances.size());
+        Assertions.assertEquals(
+                first.getId() < second.getId() ? "first" : "second",
+                failed.get(0)
+        );
+        String message = errors.get(0).getMessage();
+        Assertions.assertTrue(message.contains("Deadlock detected"), message);
+        Assertions.assertTrue(message.contains("Thread 'first'"), message);
+        Assertions.assertTrue(message.contains("Thread 'second'"), message);
+    }
+
+    private static void request(
+            Injector injector,
+            String name,
+            List<Object> instances,
+            List<Throwable> errors,
+            List<String> failed
+    ) {
+        try {
+            instances.add(injector.getInstance(Object.class, name));
+        } catch (InjectionException e) {
+            errors.add(e);
+            failed.add(Thread.currentThread().getName());
+        }
+    }
+
+    private static Object dependency(Injector injector, CountDownLatch started, String thread, String name) {
+        if (Thread.currentThread().getName().equals(thread)) {
+            started.countDown();
+            try {
+                started.await();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            injector.getInstance(Object.class, name);
+        }
+        return new Object();
+    }
+
+}
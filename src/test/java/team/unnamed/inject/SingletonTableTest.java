@@ -0,0 +1,66 @@
+/*
+ * This file is part of inject, licensed under the MIT license
+ *
+ * Copyright (c) 2021-2023 Unnamed Team
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package team.unnamed.inject;
+
+import team.unnamed.inject.scope.Scopes;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SingletonTableTest {
+
+    private static final int SINGLETONS = 1000;
+
+    @Test
+    public void test() {
+        AtomicInteger created = new AtomicInteger();
+        Injector injector = Injector.create(binder -> {
+            for (int i = 0; i < SINGLETONS; i++) {
+                binder.bind(Object.class)
+                        .named(Integer.toString(i))
+                        .toProvider(() -> created.incrementAndGet())
+                        .singleton();
+            }
+        });
+
+        for (int i = 0; i < SINGLETONS; i++) {
+            Object instance = injector.getInstance(Object.class, Integer.toString(i));
+            Assertions.assertSame(instance, injector.getInstance(Object.class, Integer.toString(i)));
+        }
+        Assertions.assertEquals(SINGLETONS, created.get());
+
+        // just-in-time singletons
+        Assertions.assertSame(injector.getInstance(Foo.class), injector.getInstance(Foo.class));
+
+        // singleton providers created out of an injector
+        Provider<Object> provider = Scopes.SINGLETON.scope(Object::new);
+        Assertions.assertSame(provider.get(), provider.get());
+    }
+
+    @Singleton
+    public static class Foo {
+    }
+
+}